@@ -0,0 +1,702 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
+import com.adobe.marketing.mobile.services.DeviceInforming;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheExpiry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StreamUtils;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content-addressed cache for the remote assets of {@code CampaignMessage}s.
+ * <p>
+ * Each asset is cached once in the {@value CampaignConstants#ASSET_CACHE_DIR} cache, keyed by its URL, regardless of how many
+ * messages use it. Cached assets never expire; the time until which an asset is fresh is kept in its
+ * {@value CampaignConstants#METADATA_FRESH_UNTIL} metadata, after which it is revalidated rather than removed. When a revalidated
+ * asset was not modified, its updated metadata is cached in a small sidecar entry of the {@value CampaignConstants#ASSET_METADATA_CACHE_DIR}
+ * cache, keyed by the asset URL, so the asset data does not need to be rewritten. Every message keeps a manifest listing the asset URLs it uses in its own
+ * {@value CampaignConstants#MESSAGE_CACHE_DIR} subdirectory, so the cached assets of messages which are no longer loaded
+ * can be removed.
+ * <p>
+ * The manifest is first cached as a {@code JSONArray} of asset URLs when the message assets are scheduled for download. Once
+ * they are downloaded, it is replaced by a {@code JSONObject} also mapping each cached asset URL to its cached file path, so that
+ * a message can resolve all its assets with a single cache read.
+ * <p>
+ * When a {@link CampaignMessageContentCache} is provided, caching an asset removes the in-memory content of the messages using it.
+ * <p>
+ * The size of the cached and partially downloaded assets is computed once from the cache directories, then kept up to date
+ * as the assets written through this instance are cached and removed.
+ */
+class CampaignAssetCache {
+    private static final String SELF_TAG = "CampaignAssetCache";
+    static final String ASSET_CACHE_NAME = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.ASSET_CACHE_DIR;
+    static final String MESSAGES_CACHE_NAME = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.MESSAGE_CACHE_DIR;
+    static final String PARTIAL_ASSET_CACHE_NAME = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.PARTIAL_ASSET_CACHE_DIR;
+    static final String ASSET_METADATA_CACHE_NAME = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.ASSET_METADATA_CACHE_DIR;
+    private static final String PARTIAL_ASSET_VALIDATOR_SUFFIX = "_validator.txt";
+    private final CacheService cacheService;
+    private final CampaignMessageContentCache messageContentCache;
+    // size of the cached and partially downloaded assets in bytes, -1 until computed, guarded by this
+    private long assetCacheSize = -1;
+
+    /**
+     * Constructor.
+     */
+    CampaignAssetCache() {
+        this(ServiceProvider.getInstance().getCacheService());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cacheService {@link CacheService} used to cache assets and message manifests
+     */
+    CampaignAssetCache(final CacheService cacheService) {
+        this(cacheService, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cacheService        {@link CacheService} used to cache assets and message manifests
+     * @param messageContentCache {@link CampaignMessageContentCache} to invalidate when an asset is cached, or null
+     */
+    CampaignAssetCache(final CacheService cacheService, final CampaignMessageContentCache messageContentCache) {
+        this.cacheService = cacheService;
+        this.messageContentCache = messageContentCache;
+    }
+
+    /**
+     * Retrieves the cached asset for the given {@code url}.
+     * <p>
+     * The metadata updated by {@link #updateAssetMetadata(String, Map)} replaces the metadata cached with the asset, except
+     * for its {@value CampaignConstants#METADATA_PATH}.
+     *
+     * @param url {@link String} containing the asset url
+     * @return {@link CacheResult} containing the cached asset, or null if the asset is not cached
+     */
+    CacheResult getAsset(final String url) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(url)) {
+            return null;
+        }
+
+        final CacheResult cachedAsset = cacheService.get(ASSET_CACHE_NAME, url);
+        if (cachedAsset == null) {
+            return null;
+        }
+
+        final CacheResult cachedAssetMetadata = cacheService.get(ASSET_METADATA_CACHE_NAME, url);
+        if (cachedAssetMetadata == null) {
+            return cachedAsset;
+        }
+
+        closeQuietly(cachedAssetMetadata.getData());
+        if (cachedAssetMetadata.getMetadata() == null) {
+            return cachedAsset;
+        }
+
+        final Map<String, String> metadata = new HashMap<>();
+        if (cachedAsset.getMetadata() != null) {
+            metadata.putAll(cachedAsset.getMetadata());
+        }
+        final String cachedAssetPath = metadata.get(CampaignConstants.METADATA_PATH);
+        metadata.putAll(cachedAssetMetadata.getMetadata());
+        metadata.remove(CampaignConstants.METADATA_PATH);
+        if (cachedAssetPath != null) {
+            metadata.put(CampaignConstants.METADATA_PATH, cachedAssetPath);
+        }
+        return new CachedAsset(cachedAsset, metadata);
+    }
+
+    /**
+     * Caches the asset downloaded from the given {@code url}.
+     *
+     * @param url      {@link String} containing the asset url
+     * @param data     {@link InputStream} containing the asset data
+     * @param metadata {@code Map<String, String>} containing the asset metadata
+     * @return {@code boolean} indicating whether the asset was cached
+     */
+    boolean cacheAsset(final String url, final InputStream data, final Map<String, String> metadata) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(url) || data == null) {
+            return false;
+        }
+
+        Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "cacheAsset - Caching asset %s.", url);
+        final File assetFile = getAssetFile(url);
+        final long previousAssetSize = assetFile != null ? assetFile.length() : 0;
+        final boolean cached = cacheService.set(ASSET_CACHE_NAME, url, new CacheEntry(data, CacheExpiry.never(), metadata));
+        if (cached) {
+            onAssetCached(url, assetFile != null ? assetFile.length() - previousAssetSize : 0);
+        }
+        return cached;
+    }
+
+    /**
+     * Updates the asset cache size and removes the state depending on the previously cached version of the asset.
+     *
+     * @param url       {@link String} containing the asset url
+     * @param sizeDelta {@code long} containing the number of bytes added to the asset cache
+     */
+    private void onAssetCached(final String url, final long sizeDelta) {
+        updateAssetCacheSize(sizeDelta);
+        // the metadata of a previously cached version of the asset no longer applies
+        cacheService.remove(ASSET_METADATA_CACHE_NAME, url);
+        if (messageContentCache != null) {
+            messageContentCache.invalidateAsset(url);
+        }
+    }
+
+    /**
+     * Replaces the metadata of the asset cached for the given {@code url}, keeping its data.
+     * <p>
+     * Used when a revalidated asset was not modified, so the cached messages content using it is kept. The metadata is cached
+     * in an empty sidecar entry keyed by the {@code url}, leaving the cached asset file untouched.
+     *
+     * @param url      {@link String} containing the asset url
+     * @param metadata {@code Map<String, String>} containing the new asset metadata
+     * @return {@code boolean} indicating whether the asset metadata was updated
+     */
+    boolean updateAssetMetadata(final String url, final Map<String, String> metadata) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(url)) {
+            return false;
+        }
+
+        return cacheService.set(ASSET_METADATA_CACHE_NAME, url, new CacheEntry(new ByteArrayInputStream(new byte[0]), CacheExpiry.never(), metadata));
+    }
+
+    /**
+     * Removes the asset cached for the given {@code url}.
+     *
+     * @param url {@link String} containing the asset url
+     */
+    void removeAsset(final String url) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(url)) {
+            return;
+        }
+
+        final File assetFile = getAssetFile(url);
+        final long assetSize = assetFile != null ? assetFile.length() : 0;
+        cacheService.remove(ASSET_CACHE_NAME, url);
+        updateAssetCacheSize(-assetSize);
+        cacheService.remove(ASSET_METADATA_CACHE_NAME, url);
+        if (messageContentCache != null) {
+            messageContentCache.invalidateAsset(url);
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by the cached and partially downloaded assets.
+     * <p>
+     * The cache directories are only read the first time, the size is then updated as assets are cached and removed.
+     *
+     * @return {@code long} containing the size of the asset cache in bytes, 0 if the application cache directory is unavailable
+     */
+    synchronized long getAssetCacheSize() {
+        if (assetCacheSize < 0) {
+            assetCacheSize = computeAssetCacheSize();
+        }
+        return assetCacheSize;
+    }
+
+    /**
+     * Adds the given number of bytes to the asset cache size, if it was already computed.
+     *
+     * @param sizeDelta {@code long} containing the number of bytes added to the asset cache, negative if bytes were removed
+     */
+    private synchronized void updateAssetCacheSize(final long sizeDelta) {
+        if (assetCacheSize >= 0) {
+            assetCacheSize = Math.max(0, assetCacheSize + sizeDelta);
+        }
+    }
+
+    /**
+     * Computes the number of bytes used by the cached and partially downloaded assets from the cache directories.
+     *
+     * @return {@code long} containing the size of the asset cache in bytes, 0 if the application cache directory is unavailable
+     */
+    private static long computeAssetCacheSize() {
+        long size = 0;
+        for (final String cacheName : new String[]{ASSET_CACHE_NAME, PARTIAL_ASSET_CACHE_NAME}) {
+            final File directory = getCacheDirectory(cacheName);
+            final File[] files = directory != null ? directory.listFiles() : null;
+            if (files == null) {
+                continue;
+            }
+
+            for (final File file : files) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the partially downloaded asset for the given {@code url}, if it can be resumed.
+     *
+     * @param url {@link String} containing the asset url
+     * @return the {@link PartialAsset}, or null if no resumable partial download exists for the asset
+     */
+    PartialAsset getPartialAsset(final String url) {
+        final File partialAssetFile = getPartialAssetFile(url, "");
+        if (partialAssetFile == null || partialAssetFile.length() <= 0) {
+            return null;
+        }
+
+        final File validatorFile = getPartialAssetFile(url, PARTIAL_ASSET_VALIDATOR_SUFFIX);
+        String validator = null;
+        try (final InputStream inputStream = new FileInputStream(validatorFile)) {
+            validator = StreamUtils.readAsString(inputStream);
+        } catch (final IOException exception) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "getPartialAsset - No validator found for partially downloaded asset %s.", url);
+        }
+
+        if (StringUtils.isNullOrEmpty(validator)) {
+            return null;
+        }
+        return new PartialAsset(partialAssetFile.length(), validator);
+    }
+
+    /**
+     * Opens a stream to write the data of the asset downloaded from the given {@code url}.
+     *
+     * @param url       {@link String} containing the asset url
+     * @param validator {@link String} containing the validator of the download response used to resume the download, may be null
+     * @param resume    {@code boolean} indicating whether the data is appended to the partially downloaded asset
+     * @return {@link OutputStream} to write the asset data to, or null if partial assets cannot be stored
+     */
+    OutputStream openPartialAsset(final String url, final String validator, final boolean resume) {
+        final File partialAssetFile = getPartialAssetFile(url, "");
+        if (partialAssetFile == null) {
+            return null;
+        }
+
+        final File partialAssetDirectory = partialAssetFile.getParentFile();
+        if (partialAssetDirectory != null && !partialAssetDirectory.exists() && !partialAssetDirectory.mkdirs()) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "openPartialAsset - Unable to create the partial asset directory for asset %s.", url);
+            return null;
+        }
+
+        try {
+            if (!resume) {
+                removePartialAsset(url);
+                final byte[] validatorBytes = (validator != null ? validator : "").getBytes(StandardCharsets.UTF_8);
+                try (final OutputStream validatorStream = new FileOutputStream(getPartialAssetFile(url, PARTIAL_ASSET_VALIDATOR_SUFFIX))) {
+                    validatorStream.write(validatorBytes);
+                }
+                updateAssetCacheSize(validatorBytes.length);
+            }
+            return new SizeTrackingOutputStream(new FileOutputStream(partialAssetFile, resume));
+        } catch (final IOException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "openPartialAsset - Unable to write partially downloaded asset %s: %s", url, exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches the completely downloaded partial asset for the given {@code url}, then removes the partial asset.
+     * <p>
+     * The partial asset file is streamed into the cache through the {@link CacheService}, so no assumption is made on how the
+     * cached asset data is stored.
+     *
+     * @param url      {@link String} containing the asset url
+     * @param metadata {@code Map<String, String>} containing the asset metadata
+     * @return {@code boolean} indicating whether the asset was cached
+     * @see #cacheAsset(String, InputStream, Map)
+     */
+    boolean cachePartialAsset(final String url, final Map<String, String> metadata) {
+        final File partialAssetFile = getPartialAssetFile(url, "");
+        if (cacheService == null || partialAssetFile == null || !partialAssetFile.exists()) {
+            return false;
+        }
+
+        boolean cached = false;
+        try (final InputStream inputStream = new FileInputStream(partialAssetFile)) {
+            cached = cacheAsset(url, inputStream, metadata);
+        } catch (final IOException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "cachePartialAsset - Unable to read partially downloaded asset %s: %s", url, exception.getMessage());
+        }
+
+        removePartialAsset(url);
+        return cached;
+    }
+
+    /**
+     * Removes the partially downloaded asset for the given {@code url}, if any.
+     *
+     * @param url {@link String} containing the asset url
+     */
+    void removePartialAsset(final String url) {
+        final File partialAssetFile = getPartialAssetFile(url, "");
+        if (partialAssetFile == null) {
+            return;
+        }
+
+        final File validatorFile = getPartialAssetFile(url, PARTIAL_ASSET_VALIDATOR_SUFFIX);
+        final long partialAssetSize = partialAssetFile.length() + validatorFile.length();
+        partialAssetFile.delete();
+        validatorFile.delete();
+        updateAssetCacheSize(-partialAssetSize);
+    }
+
+    /**
+     * Caches the manifest of asset URLs used by the message with the given {@code messageId}.
+     *
+     * @param messageId {@link String} containing the message id
+     * @param assetUrls {@code List<String>} containing the asset urls used by the message
+     * @return {@code boolean} indicating whether the manifest was cached
+     */
+    boolean cacheManifest(final String messageId, final List<String> assetUrls) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(messageId)) {
+            return false;
+        }
+
+        final byte[] manifest = new JSONArray(assetUrls).toString().getBytes(StandardCharsets.UTF_8);
+        return cacheService.set(getMessageCacheName(messageId), CampaignConstants.MESSAGE_MANIFEST_KEY,
+                new CacheEntry(new ByteArrayInputStream(manifest), CacheExpiry.never(), null));
+    }
+
+    /**
+     * Caches the manifest of asset URLs used by the message with the given {@code messageId}, along with the cached file
+     * paths the downloaded assets resolved to.
+     *
+     * @param messageId      {@link String} containing the message id
+     * @param assetUrls      {@code List<String>} containing the asset urls used by the message
+     * @param resolvedAssets {@code Map<String, String>} containing the urls of the cached assets and their cached file paths
+     * @return {@code boolean} indicating whether the manifest was cached
+     */
+    boolean cacheResolvedManifest(final String messageId, final List<String> assetUrls, final Map<String, String> resolvedAssets) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(messageId)) {
+            return false;
+        }
+
+        final JSONObject manifest = new JSONObject();
+        try {
+            manifest.put(CampaignConstants.MESSAGE_MANIFEST_ASSETS_KEY, new JSONArray(assetUrls));
+            manifest.put(CampaignConstants.MESSAGE_MANIFEST_RESOLVED_ASSETS_KEY,
+                    new JSONObject(resolvedAssets != null ? resolvedAssets : new HashMap<String, String>()));
+        } catch (final JSONException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "cacheResolvedManifest - Unable to create the manifest for message id %s: %s", messageId, exception.getMessage());
+            return false;
+        }
+
+        final byte[] manifestBytes = manifest.toString().getBytes(StandardCharsets.UTF_8);
+        return cacheService.set(getMessageCacheName(messageId), CampaignConstants.MESSAGE_MANIFEST_KEY,
+                new CacheEntry(new ByteArrayInputStream(manifestBytes), CacheExpiry.never(), null));
+    }
+
+    /**
+     * Retrieves the manifest of asset URLs used by the message with the given {@code messageId}.
+     *
+     * @param messageId {@link String} containing the message id
+     * @return {@code List<String>} containing the asset urls used by the message, empty if no manifest is cached
+     */
+    List<String> getManifest(final String messageId) {
+        final List<String> assetUrls = new ArrayList<>();
+        final Object manifest = readManifest(messageId);
+        final JSONArray manifestAssets = manifest instanceof JSONObject
+                ? ((JSONObject) manifest).optJSONArray(CampaignConstants.MESSAGE_MANIFEST_ASSETS_KEY)
+                : (JSONArray) manifest;
+        if (manifestAssets == null) {
+            return assetUrls;
+        }
+
+        for (int i = 0; i < manifestAssets.length(); i++) {
+            final String assetUrl = manifestAssets.optString(i, null);
+            if (assetUrl != null) {
+                assetUrls.add(assetUrl);
+            }
+        }
+        return assetUrls;
+    }
+
+    /**
+     * Retrieves the cached file paths the downloaded assets of the message with the given {@code messageId} resolved to.
+     *
+     * @param messageId {@link String} containing the message id
+     * @return {@code Map<String, String>} containing the urls of the cached assets and their cached file paths, or null if
+     * the message assets were not resolved yet
+     */
+    Map<String, String> getResolvedAssets(final String messageId) {
+        final Object manifest = readManifest(messageId);
+        final JSONObject manifestResolvedAssets = manifest instanceof JSONObject
+                ? ((JSONObject) manifest).optJSONObject(CampaignConstants.MESSAGE_MANIFEST_RESOLVED_ASSETS_KEY)
+                : null;
+        if (manifestResolvedAssets == null) {
+            return null;
+        }
+
+        final Map<String, String> resolvedAssets = new HashMap<>();
+        final Iterator<String> assetUrls = manifestResolvedAssets.keys();
+        while (assetUrls.hasNext()) {
+            final String assetUrl = assetUrls.next();
+            final String cachedAssetPath = manifestResolvedAssets.optString(assetUrl, null);
+            if (!StringUtils.isNullOrEmpty(cachedAssetPath)) {
+                resolvedAssets.put(assetUrl, cachedAssetPath);
+            }
+        }
+        return resolvedAssets;
+    }
+
+    /**
+     * Returns the cached file path of the provided cached asset.
+     *
+     * @param cachedAsset {@link CacheResult} containing a cached asset
+     * @return {@link String} containing the cached file path, or null if the {@code cachedAsset} is null or has no path
+     */
+    static String getCachedAssetPath(final CacheResult cachedAsset) {
+        if (cachedAsset == null || cachedAsset.getMetadata() == null) {
+            return null;
+        }
+
+        return cachedAsset.getMetadata().get(CampaignConstants.METADATA_PATH);
+    }
+
+    /**
+     * Removes the cached manifests of the messages which are not in {@code loadedMessageIds}, and the cached assets which are
+     * not used by any of the loaded messages.
+     * <p>
+     * Only the manifest is kept in the cache directory of a loaded message, so the assets previously cached per message under
+     * {@value CampaignConstants#MESSAGE_CACHE_DIR} are removed, messages only resolve their assets from the shared asset cache.
+     *
+     * @param loadedMessageIds {@code Collection<String>} containing the ids of the loaded messages
+     * @return {@link Utils.ReclaimedSpace} containing the number of files and bytes removed from the cache
+     */
+    Utils.ReclaimedSpace removeUnusedAssets(final Collection<String> loadedMessageIds) {
+        final Utils.ReclaimedSpace reclaimedSpace = new Utils.ReclaimedSpace();
+        final DeviceInforming deviceInfoService = ServiceProvider.getInstance().getDeviceInfoService();
+        if (deviceInfoService == null || deviceInfoService.getApplicationCacheDir() == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "removeUnusedAssets - Cannot remove unused assets, the application cache directory is unavailable.");
+            return reclaimedSpace;
+        }
+
+        final File cacheDir = new File(deviceInfoService.getApplicationCacheDir(), CampaignConstants.AEPSDK_CACHE_BASE_DIR);
+        final Set<String> retainedMessageIds = loadedMessageIds != null ? new HashSet<>(loadedMessageIds) : new HashSet<String>();
+        final File messagesCacheDir = new File(cacheDir, MESSAGES_CACHE_NAME);
+        Utils.removeDirectoriesNotInSet(messagesCacheDir, retainedMessageIds, reclaimedSpace);
+
+        final Set<String> retainedAssetUrls = new HashSet<>();
+        final List<String> messageCacheKeys = Collections.singletonList(CampaignConstants.MESSAGE_MANIFEST_KEY);
+        for (final String messageId : retainedMessageIds) {
+            retainedAssetUrls.addAll(getManifest(messageId));
+            // assets cached per message before the shared asset cache was introduced
+            Utils.removeCachedFilesNotInList(new File(messagesCacheDir, messageId), messageCacheKeys, reclaimedSpace);
+        }
+        final long reclaimedBytesBeforeAssets = reclaimedSpace.bytes;
+        Utils.removeCachedFilesNotInList(new File(cacheDir, ASSET_CACHE_NAME), retainedAssetUrls, reclaimedSpace);
+        Utils.removeCachedFilesNotInList(new File(cacheDir, PARTIAL_ASSET_CACHE_NAME), retainedAssetUrls, reclaimedSpace);
+        updateAssetCacheSize(reclaimedBytesBeforeAssets - reclaimedSpace.bytes);
+        Utils.removeCachedFilesNotInList(new File(cacheDir, ASSET_METADATA_CACHE_NAME), retainedAssetUrls, reclaimedSpace);
+
+        Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                "removeUnusedAssets - Reclaimed %d bytes in %d cached file(s).", reclaimedSpace.bytes, reclaimedSpace.files);
+        return reclaimedSpace;
+    }
+
+    /**
+     * Reads the manifest cached for the message with the given {@code messageId}.
+     *
+     * @param messageId {@link String} containing the message id
+     * @return the {@link JSONArray} or {@link JSONObject} manifest, or null if no valid manifest is cached
+     */
+    private Object readManifest(final String messageId) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(messageId)) {
+            return null;
+        }
+
+        final CacheResult cachedManifest = cacheService.get(getMessageCacheName(messageId), CampaignConstants.MESSAGE_MANIFEST_KEY);
+        if (cachedManifest == null) {
+            return null;
+        }
+
+        final String manifest = StreamUtils.readAsString(cachedManifest.getData());
+        if (StringUtils.isNullOrEmpty(manifest)) {
+            return null;
+        }
+
+        try {
+            return manifest.trim().startsWith("{") ? new JSONObject(manifest) : new JSONArray(manifest);
+        } catch (final JSONException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "readManifest - Unable to read the cached manifest for message id %s: %s", messageId, exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the directory of the given cache name in the application cache directory.
+     *
+     * @param cacheName {@link String} containing the cache name
+     * @return the cache {@link File} directory, or null if the application cache directory is unavailable
+     */
+    private static File getCacheDirectory(final String cacheName) {
+        final DeviceInforming deviceInfoService = ServiceProvider.getInstance().getDeviceInfoService();
+        if (deviceInfoService == null || deviceInfoService.getApplicationCacheDir() == null) {
+            return null;
+        }
+
+        return new File(new File(deviceInfoService.getApplicationCacheDir(), CampaignConstants.AEPSDK_CACHE_BASE_DIR), cacheName);
+    }
+
+    /**
+     * Returns the file storing the cached data of the asset for the given {@code url}.
+     * <p>
+     * The file name is the SHA-256 hash of the {@code url}, as named by the {@link CacheService}.
+     *
+     * @param url {@link String} containing the asset url
+     * @return the cached asset {@link File}, or null if the application cache directory is unavailable
+     */
+    private static File getAssetFile(final String url) {
+        final File assetDirectory = StringUtils.isNullOrEmpty(url) ? null : getCacheDirectory(ASSET_CACHE_NAME);
+        return assetDirectory != null ? new File(assetDirectory, StringEncoder.sha2hash(url)) : null;
+    }
+
+    /**
+     * Returns the file storing partially downloaded asset data for the given {@code url}.
+     * <p>
+     * The file name starts with the SHA-256 hash of the {@code url}, like cached asset files.
+     *
+     * @param url    {@link String} containing the asset url
+     * @param suffix {@link String} appended to the file name
+     * @return the partial asset {@link File}, or null if the application cache directory is unavailable
+     */
+    private static File getPartialAssetFile(final String url, final String suffix) {
+        final File partialAssetDirectory = StringUtils.isNullOrEmpty(url) ? null : getCacheDirectory(PARTIAL_ASSET_CACHE_NAME);
+        return partialAssetDirectory != null ? new File(partialAssetDirectory, StringEncoder.sha2hash(url) + suffix) : null;
+    }
+
+    private static String getMessageCacheName(final String messageId) {
+        return MESSAGES_CACHE_NAME + File.separator + messageId;
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if (inputStream == null) {
+            return;
+        }
+
+        try {
+            inputStream.close();
+        } catch (final IOException exception) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "closeQuietly - Unable to close stream: %s", exception.getMessage());
+        }
+    }
+
+    /**
+     * Adds the bytes written to a partial asset to the asset cache size.
+     */
+    private final class SizeTrackingOutputStream extends FilterOutputStream {
+        private SizeTrackingOutputStream(final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            updateAssetCacheSize(1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            updateAssetCacheSize(len);
+        }
+    }
+
+    /**
+     * A cached asset whose metadata was updated after it was cached.
+     */
+    private static final class CachedAsset implements CacheResult {
+        private final CacheResult cachedAsset;
+        private final Map<String, String> metadata;
+
+        private CachedAsset(final CacheResult cachedAsset, final Map<String, String> metadata) {
+            this.cachedAsset = cachedAsset;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public InputStream getData() {
+            return cachedAsset.getData();
+        }
+
+        @Override
+        public CacheExpiry getExpiry() {
+            return cachedAsset.getExpiry();
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return metadata;
+        }
+    }
+
+    /**
+     * A partially downloaded asset which can be resumed.
+     */
+    static final class PartialAsset {
+        private final long length;
+        private final String validator;
+
+        private PartialAsset(final long length, final String validator) {
+            this.length = length;
+            this.validator = validator;
+        }
+
+        /**
+         * @return {@code long} containing the number of bytes already downloaded
+         */
+        long getLength() {
+            return length;
+        }
+
+        /**
+         * @return {@link String} containing the validator of the response the data was downloaded from
+         */
+        String getValidator() {
+            return validator;
+        }
+    }
+}
@@ -0,0 +1,614 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.services.HttpConnecting;
+import com.adobe.marketing.mobile.services.HttpMethod;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NetworkRequest;
+import com.adobe.marketing.mobile.services.Networking;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules the downloads of remote assets for {@code CampaignMessage}s.
+ * <p>
+ * At most {@link #maxConcurrentDownloads} assets are downloaded at the same time, the remaining ones wait in a queue ordered
+ * by priority (lower values first) then by scheduling order. An asset requested by multiple messages is only downloaded once
+ * and stored in the shared {@link CampaignAssetCache}. Cached assets are revalidated with conditional requests once they are
+ * no longer fresh according to the {@value CampaignConstants#HTTP_HEADER_CACHE_CONTROL} or
+ * {@value CampaignConstants#HTTP_HEADER_EXPIRES} headers of the response which cached them.
+ * <p>
+ * An interrupted asset download is resumed from the bytes already downloaded with a range request. Assets larger than
+ * {@link #maxAssetSize}, or which would grow the asset cache beyond {@link #maxAssetCacheSize}, are not cached. They are
+ * rejected from the response {@value CampaignConstants#HTTP_HEADER_CONTENT_LENGTH} before being downloaded when it is known.
+ */
+class CampaignAssetDownloadScheduler {
+    private static final String SELF_TAG = "CampaignAssetDownloadScheduler";
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int STREAM_BUFFER_SIZE = 4096;
+    private final Networking networkService;
+    private final CampaignAssetCache assetCache;
+    private final int maxConcurrentDownloads;
+    private final long maxAssetSize;
+    private final long maxAssetCacheSize;
+    private final Object schedulerMutex = new Object();
+    // queued downloads, ordered by priority
+    private final PriorityQueue<AssetDownload> queuedDownloads = new PriorityQueue<>();
+    // queued and active downloads, keyed by asset url
+    private final Map<String, AssetDownload> scheduledDownloads = new HashMap<>();
+    private int activeDownloads;
+    private long scheduledCount;
+
+    /**
+     * Constructor.
+     * <p>
+     * Allows up to {@value CampaignConstants#DEFAULT_MAX_CONCURRENT_ASSET_DOWNLOADS} concurrent asset downloads, assets of up to
+     * {@value CampaignConstants#MAX_ASSET_SIZE_BYTES} bytes and up to {@value CampaignConstants#MAX_ASSET_CACHE_SIZE_BYTES} bytes
+     * of cached assets.
+     *
+     * @param assetCache {@link CampaignAssetCache} to store the downloaded assets in
+     */
+    CampaignAssetDownloadScheduler(final CampaignAssetCache assetCache) {
+        this(assetCache, CampaignConstants.DEFAULT_MAX_CONCURRENT_ASSET_DOWNLOADS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assetCache             {@link CampaignAssetCache} to store the downloaded assets in
+     * @param maxConcurrentDownloads {@code int} containing the maximum number of concurrent asset downloads
+     * @see #CampaignAssetDownloadScheduler(CampaignAssetCache, int, long, long)
+     */
+    CampaignAssetDownloadScheduler(final CampaignAssetCache assetCache, final int maxConcurrentDownloads) {
+        this(assetCache, maxConcurrentDownloads, CampaignConstants.MAX_ASSET_SIZE_BYTES, CampaignConstants.MAX_ASSET_CACHE_SIZE_BYTES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assetCache             {@link CampaignAssetCache} to store the downloaded assets in
+     * @param maxConcurrentDownloads {@code int} containing the maximum number of concurrent asset downloads
+     * @param maxAssetSize           {@code long} containing the maximum size in bytes of a downloaded asset
+     * @param maxAssetCacheSize      {@code long} containing the maximum size in bytes of all the cached assets
+     */
+    CampaignAssetDownloadScheduler(final CampaignAssetCache assetCache, final int maxConcurrentDownloads,
+                                   final long maxAssetSize, final long maxAssetCacheSize) {
+        this.networkService = ServiceProvider.getInstance().getNetworkService();
+        this.assetCache = assetCache;
+        this.maxConcurrentDownloads = Math.max(1, maxConcurrentDownloads);
+        this.maxAssetSize = maxAssetSize;
+        this.maxAssetCacheSize = maxAssetCacheSize;
+    }
+
+    /**
+     * Schedules the download of the asset at {@code url}.
+     * <p>
+     * If the asset is already scheduled, the queued download is moved up if the given {@code priority} is higher.
+     *
+     * @param url      {@link String} containing the asset url
+     * @param priority {@code int} containing the download priority, lower values are downloaded first
+     */
+    void schedule(final String url, final int priority) {
+        schedule(url, priority, null);
+    }
+
+    /**
+     * Schedules the download of the asset at {@code url}.
+     * <p>
+     * If the asset is already scheduled, the queued download is moved up if the given {@code priority} is higher.
+     * <p>
+     * The {@code completionListener} is invoked once the download has completed, whether or not the asset was cached,
+     * or immediately if the asset cannot be downloaded. It receives the cached file path of the asset, if any.
+     *
+     * @param url                {@link String} containing the asset url
+     * @param priority           {@code int} containing the download priority, lower values are downloaded first
+     * @param completionListener {@link CompletionListener} invoked when the download has completed, may be null
+     */
+    void schedule(final String url, final int priority, final CompletionListener completionListener) {
+        if (networkService == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "schedule - Cannot download asset %s, the network service is unavailable.", url);
+            notifyCompletion(completionListener, url, CampaignAssetCache.getCachedAssetPath(assetCache.getAsset(url)));
+            return;
+        }
+
+        final List<AssetDownload> downloadsToStart;
+        synchronized (schedulerMutex) {
+            AssetDownload assetDownload = scheduledDownloads.get(url);
+            if (assetDownload == null) {
+                assetDownload = new AssetDownload(url, priority, scheduledCount++);
+                scheduledDownloads.put(url, assetDownload);
+                queuedDownloads.add(assetDownload);
+            } else if (!assetDownload.active && priority < assetDownload.priority) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "schedule - Asset %s is already scheduled, raising its priority to %d.", url, priority);
+                queuedDownloads.remove(assetDownload);
+                assetDownload.priority = priority;
+                queuedDownloads.add(assetDownload);
+            }
+            if (completionListener != null) {
+                assetDownload.completionListeners.add(completionListener);
+            }
+            downloadsToStart = pollDownloadsToStart();
+        }
+
+        startDownloads(downloadsToStart);
+    }
+
+    /**
+     * Returns the number of queued and active asset downloads.
+     *
+     * @return {@code int} containing the number of scheduled asset downloads
+     */
+    int getScheduledDownloadCount() {
+        synchronized (schedulerMutex) {
+            return scheduledDownloads.size();
+        }
+    }
+
+    /**
+     * Removes the next queued downloads from the queue while fewer than {@link #maxConcurrentDownloads} are active.
+     * <p>
+     * Must be called while holding {@link #schedulerMutex}.
+     *
+     * @return {@code List<AssetDownload>} of downloads to start
+     */
+    private List<AssetDownload> pollDownloadsToStart() {
+        final List<AssetDownload> downloadsToStart = new ArrayList<>();
+        while (activeDownloads < maxConcurrentDownloads && !queuedDownloads.isEmpty()) {
+            final AssetDownload assetDownload = queuedDownloads.poll();
+            assetDownload.active = true;
+            activeDownloads++;
+            downloadsToStart.add(assetDownload);
+        }
+        return downloadsToStart;
+    }
+
+    /**
+     * Starts the given asset downloads.
+     * <p>
+     * A cached asset which is still fresh, as indicated by its {@value CampaignConstants#METADATA_FRESH_UNTIL} metadata,
+     * is not revalidated: its download completes immediately and the next queued downloads are started instead.
+     *
+     * @param downloadsToStart {@code List<AssetDownload>} of downloads to start
+     */
+    private void startDownloads(final List<AssetDownload> downloadsToStart) {
+        List<AssetDownload> pendingDownloads = downloadsToStart;
+        while (!pendingDownloads.isEmpty()) {
+            final List<AssetDownload> nextDownloads = new ArrayList<>();
+            for (final AssetDownload assetDownload : pendingDownloads) {
+                final String url = assetDownload.url;
+                assetDownload.cachedAsset = assetCache.getAsset(url);
+                if (Utils.isFresh(assetDownload.cachedAsset)) {
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "startDownloads - Cached asset is still fresh, skipping download: %s", url);
+                    nextDownloads.addAll(completeDownload(assetDownload, CampaignAssetCache.getCachedAssetPath(assetDownload.cachedAsset)));
+                    continue;
+                }
+
+                // 304 - Not Modified support
+                final Map<String, String> requestProperties = Utils.extractHeadersFromCache(assetDownload.cachedAsset);
+                // 206 - Partial Content support, resume an interrupted download if the asset was not modified since
+                final CampaignAssetCache.PartialAsset partialAsset = assetCache.getPartialAsset(url);
+                assetDownload.resumeOffset = partialAsset != null ? partialAsset.getLength() : 0;
+                if (partialAsset != null) {
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                            "startDownloads - Resuming download of asset %s from byte %d.", url, partialAsset.getLength());
+                    requestProperties.put(CampaignConstants.HTTP_HEADER_RANGE, "bytes=" + partialAsset.getLength() + "-");
+                    requestProperties.put(CampaignConstants.HTTP_HEADER_IF_RANGE, partialAsset.getValidator());
+                }
+                final NetworkRequest networkRequest = new NetworkRequest(url, HttpMethod.GET, null, requestProperties, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT);
+                networkService.connectAsync(networkRequest, connection -> onAssetDownloaded(assetDownload, connection));
+            }
+            pendingDownloads = nextDownloads;
+        }
+    }
+
+    /**
+     * Invoked when an asset download has completed.
+     * <p>
+     * Caches the downloaded asset, notifies the completion listeners of the download with the cached file path of the asset,
+     * then starts the next queued downloads.
+     * <p>
+     * The cached file path is read back from the cache only when a new asset was downloaded, otherwise the path of the
+     * previously cached asset, if any, is used.
+     * <p>
+     * The time until which the asset is fresh, as given by the response {@value CampaignConstants#HTTP_HEADER_CACHE_CONTROL}
+     * or {@value CampaignConstants#HTTP_HEADER_EXPIRES} headers, is stored in the asset metadata. It is also updated for
+     * a not modified asset, so that it is not revalidated again until it is stale.
+     *
+     * @param assetDownload the completed {@link AssetDownload}
+     * @param connection    {@link HttpConnecting} containing the downloaded asset
+     */
+    private void onAssetDownloaded(final AssetDownload assetDownload, final HttpConnecting connection) {
+        final String url = assetDownload.url;
+        String cachedAssetPath = CampaignAssetCache.getCachedAssetPath(assetDownload.cachedAsset);
+        try {
+            if (connection == null) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "onAssetDownloaded - Failed to download asset from URL: %s", url);
+            } else if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "onAssetDownloaded - Asset was cached previously: %s", url);
+                refreshCachedAsset(assetDownload, connection);
+            } else if (connection.getResponseCode() == HttpURLConnection.HTTP_OK
+                    || connection.getResponseCode() == HttpURLConnection.HTTP_PARTIAL) {
+                cachedAssetPath = storeAsset(assetDownload, connection, cachedAssetPath);
+            } else {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "onAssetDownloaded - Failed to download asset from URL: %s", url);
+                if (connection.getResponseCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+                    assetCache.removePartialAsset(url);
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        startDownloads(completeDownload(assetDownload, cachedAssetPath));
+    }
+
+    /**
+     * Stores the asset downloaded with a {@value HttpURLConnection#HTTP_OK} or {@value HttpURLConnection#HTTP_PARTIAL} response.
+     * <p>
+     * The asset data is appended to the partially downloaded asset when the response resumes it, and the asset is cached once
+     * completely downloaded. If reading the response fails, the data downloaded so far is kept so the next download resumes it.
+     * <p>
+     * The asset is rejected if its size, known from the response {@value CampaignConstants#HTTP_HEADER_CONTENT_LENGTH}
+     * or counted while it is downloaded, exceeds the {@link #maxAssetSize} or {@link #maxAssetCacheSize} budgets. The previously
+     * cached asset it replaces does not count toward the {@link #maxAssetCacheSize} budget.
+     *
+     * @param assetDownload           the completed {@link AssetDownload}
+     * @param connection              {@link HttpConnecting} containing the downloaded asset
+     * @param previousCachedAssetPath {@link String} containing the cached file path of the previously cached asset, may be null
+     * @return {@link String} containing the cached file path of the asset, or null if it is not cached
+     */
+    private String storeAsset(final AssetDownload assetDownload, final HttpConnecting connection, final String previousCachedAssetPath) {
+        final String url = assetDownload.url;
+        final boolean resumed = connection.getResponseCode() == HttpURLConnection.HTTP_PARTIAL;
+        final long offset = resumed ? assetDownload.resumeOffset : 0;
+        if (resumed && (offset == 0 || extractContentRangeStart(connection) != offset)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "storeAsset - Unexpected partial content for asset %s, discarding it.", url);
+            assetCache.removePartialAsset(url);
+            return previousCachedAssetPath;
+        }
+
+        final long replacedAssetSize = getCachedAssetSize(previousCachedAssetPath);
+        final long contentLength = extractContentLength(connection);
+        if (contentLength >= 0 && !isWithinBudget(url, offset + contentLength, offset + replacedAssetSize)) {
+            assetCache.removePartialAsset(url);
+            return previousCachedAssetPath;
+        }
+
+        final Map<String, String> metadata = createAssetMetadata(connection);
+        final OutputStream outputStream = assetCache.openPartialAsset(url, extractRangeValidator(connection), resumed);
+        if (outputStream == null) {
+            // partial assets cannot be stored, cache the asset directly
+            final SizeLimitedInputStream inputStream = new SizeLimitedInputStream(connection.getInputStream(), maxAssetSize);
+            final boolean cached = assetCache.cacheAsset(url, inputStream, metadata);
+            if (inputStream.limitExceeded) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "storeAsset - Asset %s exceeds %d bytes, removing it.", url, maxAssetSize);
+                assetCache.removeAsset(url);
+                return null;
+            }
+            return cached ? CampaignAssetCache.getCachedAssetPath(assetCache.getAsset(url)) : null;
+        }
+
+        long assetSize = offset;
+        try (final OutputStream partialAssetStream = outputStream;
+             final InputStream inputStream = connection.getInputStream()) {
+            if (inputStream == null) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "storeAsset - No data received for asset %s.", url);
+                return previousCachedAssetPath;
+            }
+
+            final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                assetSize += bytesRead;
+                if (assetSize > maxAssetSize) {
+                    break;
+                }
+                partialAssetStream.write(buffer, 0, bytesRead);
+            }
+        } catch (final IOException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "storeAsset - Download of asset %s interrupted after %d bytes, it will be resumed: %s", url, assetSize, exception.getMessage());
+            return previousCachedAssetPath;
+        }
+
+        // the downloaded bytes are already stored in the partial asset
+        if (assetSize > maxAssetSize || (contentLength < 0 && !isWithinBudget(url, assetSize, assetSize + replacedAssetSize))) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "storeAsset - Asset %s exceeds the asset cache budget, removing it.", url);
+            assetCache.removePartialAsset(url);
+            return previousCachedAssetPath;
+        }
+
+        if (!assetCache.cachePartialAsset(url, metadata)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "storeAsset - Failed to cache asset from URL: %s", url);
+            return null;
+        }
+        return CampaignAssetCache.getCachedAssetPath(assetCache.getAsset(url));
+    }
+
+    /**
+     * Determines whether an asset of the given size fits in the {@link #maxAssetSize} and {@link #maxAssetCacheSize} budgets.
+     *
+     * @param url           {@link String} containing the asset url
+     * @param assetSize     {@code long} containing the size of the asset in bytes
+     * @param releasedBytes {@code long} containing the number of bytes of the asset cache released once the asset is cached,
+     *                      the bytes of the asset already downloaded and of the previously cached asset it replaces
+     * @return {@code boolean} indicating whether the asset can be cached
+     */
+    private boolean isWithinBudget(final String url, final long assetSize, final long releasedBytes) {
+        if (assetSize > maxAssetSize) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "isWithinBudget - Asset %s of %d bytes exceeds the maximum asset size of %d bytes, it will not be cached.", url, assetSize, maxAssetSize);
+            return false;
+        }
+
+        final long assetCacheSize = assetCache.getAssetCacheSize() - releasedBytes;
+        if (assetCacheSize + assetSize > maxAssetCacheSize) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "isWithinBudget - Asset %s of %d bytes exceeds the remaining asset cache budget, it will not be cached.", url, assetSize);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of the previously cached asset at the given path.
+     *
+     * @param cachedAssetPath {@link String} containing the cached file path of the asset, may be null
+     * @return {@code long} containing the size of the cached asset in bytes, 0 if it is not cached
+     */
+    private static long getCachedAssetSize(final String cachedAssetPath) {
+        return StringUtils.isNullOrEmpty(cachedAssetPath) ? 0 : new File(cachedAssetPath).length();
+    }
+
+    /**
+     * Extracts the {@value CampaignConstants#HTTP_HEADER_CONTENT_LENGTH} of the response.
+     *
+     * @param connection {@link HttpConnecting} containing the response
+     * @return {@code long} containing the length of the response body in bytes, or -1 if unknown
+     */
+    private static long extractContentLength(final HttpConnecting connection) {
+        final String contentLength = connection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Extracts the first byte position from the {@value CampaignConstants#HTTP_HEADER_CONTENT_RANGE} of a partial content response,
+     * formatted as {@code bytes <first>-<last>/<length>}.
+     *
+     * @param connection {@link HttpConnecting} containing the partial content response
+     * @return {@code long} containing the position of the first byte of the response body, or -1 if unknown
+     */
+    private static long extractContentRangeStart(final HttpConnecting connection) {
+        final String contentRange = connection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_RANGE);
+        if (contentRange == null || !contentRange.trim().startsWith("bytes ")) {
+            return -1;
+        }
+
+        final String range = contentRange.trim().substring("bytes ".length());
+        final int separatorIndex = range.indexOf('-');
+        try {
+            return separatorIndex > 0 ? Long.parseLong(range.substring(0, separatorIndex).trim()) : -1;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Extracts the validator to send in the {@value CampaignConstants#HTTP_HEADER_IF_RANGE} header when resuming the download.
+     * <p>
+     * The strong {@value CampaignConstants#HTTP_HEADER_ETAG} of the response is used if present, otherwise its
+     * {@value CampaignConstants#HTTP_HEADER_LAST_MODIFIED} date.
+     *
+     * @param connection {@link HttpConnecting} containing the response
+     * @return {@link String} containing the validator, or null if the response has none
+     */
+    private static String extractRangeValidator(final HttpConnecting connection) {
+        final String eTag = connection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_ETAG);
+        if (!StringUtils.isNullOrEmpty(eTag) && !eTag.startsWith("W/")) {
+            return eTag;
+        }
+
+        final String lastModified = connection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_LAST_MODIFIED);
+        return StringUtils.isNullOrEmpty(lastModified) ? null : lastModified;
+    }
+
+    /**
+     * Removes the given completed download from the scheduled downloads and notifies its completion listeners.
+     *
+     * @param assetDownload   the completed {@link AssetDownload}
+     * @param cachedAssetPath {@link String} containing the cached file path of the asset, or null if it is not cached
+     * @return {@code List<AssetDownload>} of the next downloads to start
+     */
+    private List<AssetDownload> completeDownload(final AssetDownload assetDownload, final String cachedAssetPath) {
+        final List<AssetDownload> downloadsToStart;
+        synchronized (schedulerMutex) {
+            scheduledDownloads.remove(assetDownload.url);
+            activeDownloads--;
+            downloadsToStart = pollDownloadsToStart();
+        }
+
+        for (final CompletionListener completionListener : assetDownload.completionListeners) {
+            notifyCompletion(completionListener, assetDownload.url, cachedAssetPath);
+        }
+        return downloadsToStart;
+    }
+
+    /**
+     * Creates the cache metadata of an asset from its download response.
+     *
+     * @param connection {@link HttpConnecting} containing the downloaded asset
+     * @return {@code Map<String, String>} containing the asset metadata
+     */
+    private Map<String, String> createAssetMetadata(final HttpConnecting connection) {
+        final Map<String, String> metadata = Utils.extractMetadataFromResponse(connection);
+        final long freshUntil = Utils.extractFreshUntilFromResponse(connection);
+        if (freshUntil > 0) {
+            metadata.put(CampaignConstants.METADATA_FRESH_UNTIL, String.valueOf(freshUntil));
+        }
+        return metadata;
+    }
+
+    /**
+     * Stores the freshness lifetime given by a not modified response in the metadata of the previously cached asset.
+     * <p>
+     * Nothing is updated if the response does not make the asset fresh.
+     *
+     * @param assetDownload the completed {@link AssetDownload}
+     * @param connection    {@link HttpConnecting} containing the not modified response
+     * @see CampaignAssetCache#updateAssetMetadata(String, Map)
+     */
+    private void refreshCachedAsset(final AssetDownload assetDownload, final HttpConnecting connection) {
+        final long freshUntil = Utils.extractFreshUntilFromResponse(connection);
+        if (freshUntil <= 0 || assetDownload.cachedAsset == null || assetDownload.cachedAsset.getMetadata() == null) {
+            return;
+        }
+
+        final Map<String, String> metadata = new HashMap<>(assetDownload.cachedAsset.getMetadata());
+        metadata.remove(CampaignConstants.METADATA_PATH);
+        metadata.put(CampaignConstants.METADATA_FRESH_UNTIL, String.valueOf(freshUntil));
+        final String eTag = connection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_ETAG);
+        if (eTag != null) {
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, eTag);
+        }
+
+        if (!assetCache.updateAssetMetadata(assetDownload.url, metadata)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "refreshCachedAsset - Failed to update the freshness of cached asset: %s", assetDownload.url);
+        }
+    }
+
+    /**
+     * Invokes the provided {@code completionListener}, logging any exception it throws.
+     *
+     * @param completionListener {@link CompletionListener} to invoke, may be null
+     * @param url                {@link String} containing the asset url
+     * @param cachedAssetPath    {@link String} containing the cached file path of the asset, or null if it is not cached
+     */
+    private void notifyCompletion(final CompletionListener completionListener, final String url, final String cachedAssetPath) {
+        if (completionListener == null) {
+            return;
+        }
+
+        try {
+            completionListener.onDownloadCompleted(url, cachedAssetPath);
+        } catch (final Exception exception) {
+            Log.warning(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "notifyCompletion - Asset download completion listener failed: %s", exception.getMessage());
+        }
+    }
+
+    /**
+     * Listener notified when a scheduled asset download has completed.
+     */
+    interface CompletionListener {
+        /**
+         * Invoked when the download of the asset at {@code url} has completed.
+         *
+         * @param url             {@link String} containing the asset url
+         * @param cachedAssetPath {@link String} containing the cached file path of the asset, or null if the asset is not cached
+         */
+        void onDownloadCompleted(final String url, final String cachedAssetPath);
+    }
+
+    /**
+     * A scheduled asset download.
+     */
+    private static final class AssetDownload implements Comparable<AssetDownload> {
+        final String url;
+        final long sequence;
+        // accessed while holding schedulerMutex until the download is removed from scheduledDownloads
+        final List<CompletionListener> completionListeners = new ArrayList<>();
+        int priority;
+        boolean active;
+        // previously cached asset, read when the download is started
+        CacheResult cachedAsset;
+        // number of bytes of the partially downloaded asset the download resumes from
+        long resumeOffset;
+
+        AssetDownload(final String url, final int priority, final long sequence) {
+            this.url = url;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(final AssetDownload other) {
+            if (priority != other.priority) {
+                return priority < other.priority ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+
+    /**
+     * {@link InputStream} which ends once a maximum number of bytes has been read.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long bytesRead;
+        boolean limitExceeded;
+
+        SizeLimitedInputStream(final InputStream inputStream, final long maxBytes) {
+            super(inputStream);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] singleByte = new byte[1];
+            return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (limitExceeded || in == null) {
+                return -1;
+            }
+
+            final int count = in.read(buffer, offset, length);
+            if (count > 0) {
+                bytesRead += count;
+                if (bytesRead > maxBytes) {
+                    limitExceeded = true;
+                    return -1;
+                }
+            }
+            return count;
+        }
+    }
+}
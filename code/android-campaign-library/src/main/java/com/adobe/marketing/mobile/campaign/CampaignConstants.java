@@ -30,6 +30,8 @@ final class CampaignConstants {
     static final String CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY = "CampaignRemoteUrl";
     static final String CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY = "ExperienceCloudId";
     static final String CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY = "CampaignRegistrationTimestamp";
+    static final String CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY = "CampaignPendingRegistration";
+    static final String CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY = "CampaignPendingRegistrationTimestamp";
 
     // acp campaign datastore file
     static final String ACP_CAMPAIGN_DATASTORE_NAME = "CampaignDataStore";
@@ -37,6 +39,12 @@ final class CampaignConstants {
     static final String AEPSDK_CACHE_BASE_DIR = "aepsdkcache";
     static final String CACHE_BASE_DIR = "campaign";
     static final String MESSAGE_CACHE_DIR = "messages";
+    static final String ASSET_CACHE_DIR = "assets";
+    static final String PARTIAL_ASSET_CACHE_DIR = "partialAssets";
+    static final String ASSET_METADATA_CACHE_DIR = "assetMetadata";
+    static final String MESSAGE_MANIFEST_KEY = "manifest";
+    static final String MESSAGE_MANIFEST_ASSETS_KEY = "assets";
+    static final String MESSAGE_MANIFEST_RESOLVED_ASSETS_KEY = "resolvedAssets";
     static final String ZIP_HANDLE = "campaign_rules.zip";
 
     static final String MESSAGE_SCHEME = "adbinapp";
@@ -55,6 +63,7 @@ final class CampaignConstants {
 
     static final long DEFAULT_TIMESTAMP_VALUE = -1;
     static final int DEFAULT_REGISTRATION_DELAY_DAYS = 7;
+    static final int PENDING_REGISTRATION_EXPIRY_HOURS = 24;
 
     // message consequence "type" value
     static final String MESSAGE_CONSEQUENCE_MESSAGE_TYPE = "iam";
@@ -65,12 +74,23 @@ final class CampaignConstants {
     static final String MESSAGE_TEMPLATE_LOCAL_NOTIFICATION = "local";
 
     static final String RULES_CACHE_FOLDER = "campaignRules";
+    static final String RULES_STAGING_CACHE_FOLDER = "campaignRulesStaging";
     static final String RULES_JSON_FILE_NAME = "rules.json";
+    static final long RULES_MIN_REFRESH_INTERVAL_MILLISECONDS = 60000;
 
     static final String CAMPAIGN_REGISTRATION_URL = "https://%s/rest/head/mobileAppV5/%s/subscriptions/%s";
     static final String CAMPAIGN_RULES_DOWNLOAD_URL = "https://%s/%s/%s/%s/rules.zip";
     static final String CAMPAIGN_TRACKING_URL = "https://%s/r/?id=%s,%s,%s&mcId=%s";
     static final int CAMPAIGN_TIMEOUT_DEFAULT = 5;
+    static final int DEFAULT_MAX_CONCURRENT_ASSET_DOWNLOADS = 4;
+    static final int MESSAGE_CONTENT_CACHE_MAX_ENTRIES = 10;
+    static final long MAX_ASSET_SIZE_BYTES = 10L * 1024 * 1024;
+    static final long MAX_ASSET_CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+    static final int CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS = 30;
+    static final int CAMPAIGN_HIT_INITIAL_RETRY_INTERVAL_SECONDS = 5;
+    static final int CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS = 300;
+    static final int CAMPAIGN_HIT_MAX_RETRY_AFTER_SECONDS = 3600;
+    static final int CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS = 10;
 
     static final String CAMPAIGN_PUSH_PLATFORM = "pushPlatform";
     static final String EXPERIENCE_CLOUD_ID = "marketingCloudId";
@@ -93,10 +113,18 @@ final class CampaignConstants {
     static final String HTTP_HEADER_IF_NONE_MATCH = "If-None-Match";
     static final String HTTP_HEADER_IF_RANGE = "If-Range";
     static final String HTTP_HEADER_ETAG = "Etag";
+    static final String HTTP_HEADER_RETRY_AFTER = "Retry-After";
+    static final String HTTP_HEADER_CACHE_CONTROL = "Cache-Control";
+    static final String HTTP_HEADER_EXPIRES = "Expires";
+    static final String HTTP_HEADER_DATE = "Date";
+    static final String HTTP_HEADER_RANGE = "Range";
+    static final String HTTP_HEADER_CONTENT_RANGE = "Content-Range";
+    static final String HTTP_HEADER_CONTENT_LENGTH = "Content-Length";
     static final ArrayList<Integer> recoverableNetworkErrorCodes = new ArrayList(Arrays.asList(HttpURLConnection.HTTP_CLIENT_TIMEOUT, HttpURLConnection.HTTP_GATEWAY_TIMEOUT, HttpURLConnection.HTTP_UNAVAILABLE));
 
     // cache service metadata
     static final String METADATA_PATH = "pathToFile";
+    static final String METADATA_FRESH_UNTIL = "freshUntil";
 
     private CampaignConstants() {
     }
@@ -119,6 +147,9 @@ final class CampaignConstants {
         static final String URL = "url";
         static final String PAYLOAD = "payload";
         static final String TIMEOUT = "timeout";
+        static final String KEEP_ALIVE = "keepAlive";
+        static final String ENCODING_VERSION = "c1";
+        static final char ENCODING_SEPARATOR = ';';
 
         private CampaignHit() {
         }
@@ -170,6 +201,7 @@ final class CampaignConstants {
             static final String CAMPAIGN_TIMEOUT = "campaign.timeout";
             static final String CAMPAIGN_REGISTRATION_DELAY_KEY = "campaign.registrationDelay";
             static final String CAMPAIGN_REGISTRATION_PAUSED_KEY = "campaign.registrationPaused";
+            static final String CAMPAIGN_KEEP_ALIVE_KEY = "campaign.keepAlive";
 
             private Configuration() {
             }
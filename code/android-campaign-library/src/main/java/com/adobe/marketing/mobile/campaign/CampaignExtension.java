@@ -50,6 +50,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -79,12 +81,20 @@ public class CampaignExtension extends Extension {
     private final ExtensionApi extensionApi;
     private final PersistentHitQueue campaignPersistentHitQueue;
     private final LaunchRulesEngine campaignRulesEngine;
+    private final CampaignRulesEventIndex campaignRulesEventIndex;
+    private final CampaignPreparedMessages campaignPreparedMessages;
+    private final CampaignMessageContentCache messageContentCache;
     private final CacheService cacheService;
     private final CampaignRulesDownloader campaignRulesDownloader;
     private final CampaignState campaignState;
     private final DataStoring dataStoreService;
+    private final CampaignNamedCollection campaignNamedCollection;
     private String linkageFields;
     private boolean hasToDownloadRules = true;
+    // set once the configuration and identity shared states have both been seen as set, cleared by every shared state change event
+    private volatile boolean sharedStatesReady = false;
+    // version of the campaign state last handled by processConfigurationResponse
+    private long processedStateVersion = -1;
 
     /**
      * Constructor.
@@ -97,21 +107,25 @@ public class CampaignExtension extends Extension {
 
         // retrieve service dependencies
         dataStoreService = ServiceProvider.getInstance().getDataStoreService();
+        campaignNamedCollection = new CampaignNamedCollection(dataStoreService);
 
         // migrate ACPCampaign datastore if present
         migrateFromACPCampaign(getNamedCollection());
 
         // initialize campaign rules engine
         campaignRulesEngine = new LaunchRulesEngine(extensionApi);
+        campaignRulesEventIndex = new CampaignRulesEventIndex();
+        campaignPreparedMessages = new CampaignPreparedMessages(this);
+        messageContentCache = new CampaignMessageContentCache();
 
         // initialize campaign rules downloader
         cacheService = ServiceProvider.getInstance().getCacheService();
-        campaignRulesDownloader = new CampaignRulesDownloader(extensionApi, campaignRulesEngine, getNamedCollection(), cacheService);
+        campaignRulesDownloader = new CampaignRulesDownloader(extensionApi, campaignRulesEngine, campaignRulesEventIndex, campaignPreparedMessages, messageContentCache, campaignNamedCollection, cacheService);
 
         // setup persistent hit queue
         final DataQueuing campaignDataQueueService = ServiceProvider.getInstance().getDataQueueService();
         final DataQueue campaignDataQueue = campaignDataQueueService.getDataQueue(CampaignConstants.FRIENDLY_NAME);
-        campaignPersistentHitQueue = new PersistentHitQueue(campaignDataQueue, new CampaignHitProcessor());
+        campaignPersistentHitQueue = new PersistentHitQueue(campaignDataQueue, new CampaignHitProcessor(campaignNamedCollection));
 
         // initialize the campaign state
         campaignState = new CampaignState();
@@ -142,9 +156,13 @@ public class CampaignExtension extends Extension {
 
         //  use passed in datastore service
         this.dataStoreService = dataStoreService;
+        this.campaignNamedCollection = new CampaignNamedCollection(dataStoreService);
 
         // use passed in rules engine
         this.campaignRulesEngine = launchRulesEngine;
+        this.campaignRulesEventIndex = new CampaignRulesEventIndex();
+        this.campaignPreparedMessages = new CampaignPreparedMessages(this);
+        this.messageContentCache = new CampaignMessageContentCache();
 
         // use passed in cache service
         this.cacheService = cacheService;
@@ -208,6 +226,12 @@ public class CampaignExtension extends Extension {
                 EventSource.WILDCARD,
                 this::handleWildcardEvents
         );
+
+        // register rules cached by a previous rules download until the rules download completes, reading and parsing the
+        // cached rules in the background so the event hub thread is not blocked
+        final ExecutorService cachedRulesExecutor = Executors.newSingleThreadExecutor();
+        cachedRulesExecutor.execute(campaignRulesDownloader::loadCachedRules);
+        cachedRulesExecutor.shutdown();
     }
 
     @Override
@@ -217,15 +241,25 @@ public class CampaignExtension extends Extension {
         if (stateOwner.equals(CampaignConstants.EventDataKeys.Identity.EXTENSION_NAME)) {
             setCampaignState(event);
 
-            if (hasToDownloadRules && campaignState.canDownloadRulesWithCurrentState()) {
+            if (hasToDownloadRules && campaignState.getSnapshot().canDownloadRules()) {
                 hasToDownloadRules = false;
                 triggerRulesDownload();
             }
         }
 
-        return getApi().getSharedState(CampaignConstants.EventDataKeys.Configuration.EXTENSION_NAME,
+        // any shared state change invalidates the cached readiness
+        if (EventType.HUB.equalsIgnoreCase(event.getType()) && EventSource.SHARED_STATE.equalsIgnoreCase(event.getSource())) {
+            sharedStatesReady = false;
+        }
+
+        if (sharedStatesReady) {
+            return true;
+        }
+
+        sharedStatesReady = getApi().getSharedState(CampaignConstants.EventDataKeys.Configuration.EXTENSION_NAME,
                 event, false, SharedStateResolution.ANY).getStatus() == SharedStateStatus.SET && getApi().getSharedState(CampaignConstants.EventDataKeys.Identity.EXTENSION_NAME,
                 event, false, SharedStateResolution.ANY).getStatus() == SharedStateStatus.SET;
+        return sharedStatesReady;
     }
 
     // ========================================================================
@@ -235,11 +269,19 @@ public class CampaignExtension extends Extension {
     /**
      * Processes all events dispatched to the {@code EventHub} to determine if any rules are matched.
      * <p>
-     * If a rule is triggered then an appropriate {@link CampaignMessage} object is instantiated and the message is shown.
+     * If a rule is triggered then the {@link CampaignMessage} object prepared when the rules were loaded is shown. If no message was
+     * prepared for the triggered consequence, an appropriate {@code CampaignMessage} object is instantiated instead.
+     * <p>
+     * Events which cannot match any of the loaded rules, as determined by the {@link CampaignRulesEventIndex}, are dropped
+     * without being evaluated by the rules engine.
      *
      * @param event incoming {@link Event} object to be processed
      */
     void handleWildcardEvents(final Event event) {
+        if (!campaignRulesEventIndex.canMatch(event)) {
+            return;
+        }
+
         List<LaunchRule> triggeredRules = campaignRulesEngine.process(event);
         final List<RuleConsequence> consequences = new ArrayList<>();
 
@@ -256,7 +298,11 @@ public class CampaignExtension extends Extension {
         }
 
         try {
-            final CampaignMessage triggeredMessage = CampaignMessage.createMessageObject(this, consequences.get(0));
+            final RuleConsequence consequence = consequences.get(0);
+            CampaignMessage triggeredMessage = campaignPreparedMessages.get(consequence);
+            if (triggeredMessage == null) {
+                triggeredMessage = CampaignMessage.createMessageObject(this, consequence);
+            }
 
             if (triggeredMessage != null) {
                 triggeredMessage.showMessage();
@@ -304,7 +350,16 @@ public class CampaignExtension extends Extension {
 
         setCampaignState(event);
 
-        final MobilePrivacyStatus privacyStatus = campaignState.getMobilePrivacyStatus();
+        // quick out if none of the Campaign properties changed since the last configuration response
+        final CampaignState.Snapshot state = campaignState.getSnapshot();
+        if (state.getVersion() == processedStateVersion) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "processConfigurationResponse -  Campaign state is unchanged, ignoring the configuration response.");
+            return;
+        }
+        processedStateVersion = state.getVersion();
+
+        final MobilePrivacyStatus privacyStatus = state.getMobilePrivacyStatus();
         // notify campaign persistent hit queue of any privacy status changes
         campaignPersistentHitQueue.handlePrivacyChange(privacyStatus);
         if (privacyStatus.equals(MobilePrivacyStatus.OPT_OUT)) {
@@ -312,7 +367,7 @@ public class CampaignExtension extends Extension {
             return;
         }
 
-        if (hasToDownloadRules && campaignState.canDownloadRulesWithCurrentState()) {
+        if (hasToDownloadRules && state.canDownloadRules()) {
             hasToDownloadRules = false;
             triggerRulesDownload();
         } else {
@@ -339,7 +394,7 @@ public class CampaignExtension extends Extension {
         linkageFields = "";
 
         // unregister campaign rules
-        campaignRulesEngine.replaceRules(null);
+        campaignRulesDownloader.unregisterRules();
 
         // clear cached rules
         clearRulesCacheDirectory();
@@ -357,7 +412,8 @@ public class CampaignExtension extends Extension {
      * @see CampaignState#canSendTrackInfoWithCurrentState()
      */
     void processMessageInformation(final Event event) {
-        if (!campaignState.canSendTrackInfoWithCurrentState()) {
+        final CampaignState.Snapshot state = campaignState.getSnapshot();
+        if (!state.canSendTrackInfo()) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "processMessageInformation -  Campaign extension is not configured to send message track request.");
             return;
@@ -391,10 +447,10 @@ public class CampaignExtension extends Extension {
 
         dispatchMessageEvent(action, deliveryId);
 
-        final String url = buildTrackingUrl(campaignState.getCampaignServer(), broadlogId, deliveryId, action,
-                campaignState.getExperienceCloudId());
+        final String url = buildTrackingUrl(state.getCampaignServer(), broadlogId, deliveryId, action,
+                state.getExperienceCloudId());
 
-        processRequest(url, "", campaignState, event);
+        processRequest(url, "", state, event);
     }
 
     /**
@@ -445,18 +501,19 @@ public class CampaignExtension extends Extension {
             return;
         }
 
-        if (!campaignState.canRegisterWithCurrentState()) {
+        final CampaignState.Snapshot state = campaignState.getSnapshot();
+        if (!state.canRegister()) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "processLifecycleUpdate -  Campaign extension is not configured to send registration request.");
             return;
         }
 
-        final String url = buildRegistrationUrl(campaignState.getCampaignServer(), campaignState.getCampaignPkey(),
-                campaignState.getExperienceCloudId());
-        final String payload = buildRegistrationPayload("gcm", campaignState.getExperienceCloudId(),
+        final String url = buildRegistrationUrl(state.getCampaignServer(), state.getCampaignPkey(),
+                state.getExperienceCloudId());
+        final String payload = buildRegistrationPayload("gcm", state.getExperienceCloudId(),
                 new HashMap<>());
 
-        processRequest(url, payload, campaignState, event);
+        processRequest(url, payload, state, event);
     }
 
     /**
@@ -468,9 +525,10 @@ public class CampaignExtension extends Extension {
      * @see CampaignRulesDownloader#loadRulesFromUrl(String, String)
      */
     void triggerRulesDownload() {
-        final String rulesUrl = String.format(CampaignConstants.CAMPAIGN_RULES_DOWNLOAD_URL, campaignState.getCampaignMcias(),
-                campaignState.getCampaignServer(), campaignState.getPropertyId(),
-                campaignState.getExperienceCloudId());
+        final CampaignState.Snapshot state = campaignState.getSnapshot();
+        final String rulesUrl = String.format(CampaignConstants.CAMPAIGN_RULES_DOWNLOAD_URL, state.getCampaignMcias(),
+                state.getCampaignServer(), state.getPropertyId(),
+                state.getExperienceCloudId());
 
         campaignRulesDownloader.loadRulesFromUrl(rulesUrl, getLinkageFields());
     }
@@ -521,7 +579,7 @@ public class CampaignExtension extends Extension {
             return;
         }
 
-        if (!campaignState.canDownloadRulesWithCurrentState()) {
+        if (!campaignState.getSnapshot().canDownloadRules()) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "handleLinkageFieldsEvent -  Campaign extension is not configured to download campaign rules.");
             return;
@@ -593,6 +651,15 @@ public class CampaignExtension extends Extension {
         return linkageFields;
     }
 
+    /**
+     * Returns the in-memory cache of fullscreen message content, shared with the {@code CampaignRulesDownloader}.
+     *
+     * @return the {@link CampaignMessageContentCache} of this extension
+     */
+    CampaignMessageContentCache getMessageContentCache() {
+        return messageContentCache;
+    }
+
     // ========================================================================
     // private methods
     // ========================================================================
@@ -606,7 +673,7 @@ public class CampaignExtension extends Extension {
     private void handleResetLinkageFields() {
         linkageFields = "";
 
-        campaignRulesEngine.replaceRules(null);
+        campaignRulesDownloader.unregisterRules();
 
         clearRulesCacheDirectory();
 
@@ -621,7 +688,7 @@ public class CampaignExtension extends Extension {
      * @return {@link NamedCollection} object for this {@link CampaignExtension}
      */
     private NamedCollection getNamedCollection() {
-        return dataStoreService.getNamedCollection(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_NAME);
+        return campaignNamedCollection.isAvailable() ? campaignNamedCollection : null;
     }
 
     /**
@@ -696,6 +763,28 @@ public class CampaignExtension extends Extension {
         }
     }
 
+    /**
+     * Updates {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY} and
+     * {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY} in {@code CampaignExtension}'s {@link NamedCollection}.
+     *
+     * @param registrationUrl {@code String} containing the url of the queued registration request.
+     * @param timestamp       {@code long} containing the time the registration request was queued.
+     */
+    private void updatePendingRegistrationInNamedCollection(final String registrationUrl, final long timestamp) {
+        final NamedCollection campaignNamedCollection = getNamedCollection();
+
+        if (campaignNamedCollection == null) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "updatePendingRegistrationInNamedCollection - Campaign Named Collection is null, cannot store pending registration.");
+            return;
+        }
+
+        Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                "updatePendingRegistrationInNamedCollection -  Persisting pending registration (%s) in Campaign Named Collection.", registrationUrl);
+        campaignNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, registrationUrl);
+        campaignNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, timestamp);
+    }
+
     /**
      * Queues a {@code Campaign} registration request by creating a {@link com.adobe.marketing.mobile.services.DataEntity} object and inserting it to
      * the Campaign {@link DataQueue} instance.
@@ -704,21 +793,25 @@ public class CampaignExtension extends Extension {
      *
      * @param url           {@link String} containing the registration request URL
      * @param payload       {@link String} containing the registration request payload
-     * @param campaignState {@link CampaignState} instance containing the current {@code Campaign} configuration
+     * @param campaignState {@link CampaignState.Snapshot} containing the current {@code Campaign} configuration
      * @param event         {@link Event} which triggered the queuing of the {@code Campaign} registration request
      */
-    private void processRequest(final String url, final String payload, final CampaignState campaignState,
+    private void processRequest(final String url, final String payload, final CampaignState.Snapshot campaignState,
                                 final Event event) {
         // check if this request is a registration request by checking for the presence of a payload
         // and if it is a registration request, determine if it should be sent.
-        if (!StringUtils.isNullOrEmpty(payload)
-                && !shouldSendRegistrationRequest(campaignState, event.getTimestamp())) {
-            return;
+        if (!StringUtils.isNullOrEmpty(payload)) {
+            if (!shouldSendRegistrationRequest(campaignState, url, event.getTimestamp())) {
+                return;
+            }
+
+            // record the queued registration request so that it is not queued again until it is processed
+            updatePendingRegistrationInNamedCollection(url, event.getTimestamp());
         }
 
         // create a data entity and add it to the data queue
-        final CampaignHit campaignHit = new CampaignHit(url, payload, campaignState.getCampaignTimeout());
-        final DataEntity dataEntity = new DataEntity(campaignHit.toString());
+        final CampaignHit campaignHit = new CampaignHit(url, payload, campaignState.getCampaignTimeout(), campaignState.getCampaignKeepAlive());
+        final DataEntity dataEntity = new DataEntity(campaignHit.encode());
         Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "processRequest - Campaign Request Queued with url (%s) and body (%s)", url, payload);
         campaignPersistentHitQueue.queue(dataEntity);
     }
@@ -795,12 +888,18 @@ public class CampaignExtension extends Extension {
 
     /**
      * Determines if a registration request should be sent to Campaign.
+     * <p>
+     * A registration request is not sent if an identical registration request for the current Experience Cloud Id and
+     * {@code pkey} is still waiting in the Campaign hit queue. The pending registration expires after
+     * {@value CampaignConstants#PENDING_REGISTRATION_EXPIRY_HOURS} hours, so a registration request lost before being processed
+     * does not block the later ones.
      *
-     * @param campaignState  {@link CampaignState} instance containing the current {@code Campaign} configuration
+     * @param campaignState   {@link CampaignState.Snapshot} containing the current {@code Campaign} configuration
+     * @param registrationUrl {@link String} containing the registration request URL, which identifies the Experience Cloud Id and {@code pkey}
      * @param eventTimestamp {@link Long} containing the registration event's timestamp.
      * @return the {@code boolean} indicating if a registration request should be sent.
      */
-    private boolean shouldSendRegistrationRequest(final CampaignState campaignState, final long eventTimestamp) {
+    private boolean shouldSendRegistrationRequest(final CampaignState.Snapshot campaignState, final String registrationUrl, final long eventTimestamp) {
         // quick out if registration requests should be ignored
         final boolean shouldPauseRegistration = campaignState.getCampaignRegistrationPaused();
 
@@ -827,6 +926,17 @@ public class CampaignExtension extends Extension {
 
         }
 
+        final String pendingRegistrationUrl = getNamedCollection().getString(
+                CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, "");
+        final long pendingRegistrationTimestamp = getNamedCollection().getLong(
+                CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, CampaignConstants.DEFAULT_TIMESTAMP_VALUE);
+        if (registrationUrl.equals(pendingRegistrationUrl)
+                && eventTimestamp - pendingRegistrationTimestamp < TimeUnit.HOURS.toMillis(CampaignConstants.PENDING_REGISTRATION_EXPIRY_HOURS)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "shouldSendRegistrationRequest - The registration request will not be sent because an identical registration request is already queued.");
+            return false;
+        }
+
         if (eventTimestamp - retrievedTimestamp >= registrationDelayInMilliseconds) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "shouldSendRegistrationRequest -  Registration delay of (%d) days has elapsed. Sending the Campaign registration request.",
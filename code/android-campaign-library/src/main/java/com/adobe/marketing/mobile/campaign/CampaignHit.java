@@ -13,17 +13,72 @@ public class CampaignHit {
     String url;
     String payload;
     int timeout;
+    boolean keepAlive;
 
     CampaignHit(final String url, final String payload, final int timeout) {
+        this(url, payload, timeout, false);
+    }
+
+    CampaignHit(final String url, final String payload, final int timeout, final boolean keepAlive) {
         this.url = url;
         this.payload = payload;
         this.timeout = timeout;
+        this.keepAlive = keepAlive;
     }
 
     HttpMethod getHttpCommand() {
         return !StringUtils.isNullOrEmpty(payload) ? HttpMethod.POST : HttpMethod.GET;
     }
 
+    /**
+     * Encodes this {@code CampaignHit} in the compact format stored in the Campaign hit queue.
+     * <p>
+     * The encoded hit is made of the {@value CampaignConstants.CampaignHit#ENCODING_VERSION} version prefix, the timeout,
+     * the keep-alive flag and the url length, separated by {@value CampaignConstants.CampaignHit#ENCODING_SEPARATOR},
+     * followed by the url and the payload.
+     *
+     * @return {@link String} containing the encoded hit
+     */
+    String encode() {
+        final String hitPayload = payload != null ? payload : "";
+        return new StringBuilder(url.length() + hitPayload.length() + 16)
+                .append(CampaignConstants.CampaignHit.ENCODING_VERSION)
+                .append(CampaignConstants.CampaignHit.ENCODING_SEPARATOR).append(timeout)
+                .append(CampaignConstants.CampaignHit.ENCODING_SEPARATOR).append(keepAlive ? '1' : '0')
+                .append(CampaignConstants.CampaignHit.ENCODING_SEPARATOR).append(url.length())
+                .append(CampaignConstants.CampaignHit.ENCODING_SEPARATOR).append(url)
+                .append(hitPayload)
+                .toString();
+    }
+
+    /**
+     * Decodes a {@code CampaignHit} encoded with {@link #encode()}.
+     *
+     * @param data {@link String} containing the encoded hit
+     * @return {@link CampaignHit} decoded from the {@code data}, or null if the {@code data} is not a valid encoded hit
+     */
+    static CampaignHit decode(final String data) {
+        if (data == null || !data.startsWith(CampaignConstants.CampaignHit.ENCODING_VERSION + CampaignConstants.CampaignHit.ENCODING_SEPARATOR)) {
+            return null;
+        }
+
+        try {
+            int start = CampaignConstants.CampaignHit.ENCODING_VERSION.length() + 1;
+            int end = data.indexOf(CampaignConstants.CampaignHit.ENCODING_SEPARATOR, start);
+            final int timeout = Integer.parseInt(data.substring(start, end));
+            start = end + 1;
+            end = data.indexOf(CampaignConstants.CampaignHit.ENCODING_SEPARATOR, start);
+            final boolean keepAlive = "1".equals(data.substring(start, end));
+            start = end + 1;
+            end = data.indexOf(CampaignConstants.CampaignHit.ENCODING_SEPARATOR, start);
+            final int urlLength = Integer.parseInt(data.substring(start, end));
+            start = end + 1;
+            return new CampaignHit(data.substring(start, start + urlLength), data.substring(start + urlLength), timeout, keepAlive);
+        } catch (final NumberFormatException | IndexOutOfBoundsException exception) {
+            return null;
+        }
+    }
+
     @Override
     public String toString() {
         final Map<String, Object> dataMap = new HashMap<String, Object>() {
@@ -31,6 +86,9 @@ public class CampaignHit {
                 put(CampaignConstants.CampaignHit.URL, url);
                 put(CampaignConstants.CampaignHit.PAYLOAD, payload);
                 put(CampaignConstants.CampaignHit.TIMEOUT, timeout);
+                if (keepAlive) {
+                    put(CampaignConstants.CampaignHit.KEEP_ALIVE, true);
+                }
             }
         };
         final JSONObject jsonData = new JSONObject(dataMap);
@@ -14,8 +14,8 @@ package com.adobe.marketing.mobile.campaign;
 import com.adobe.marketing.mobile.services.DataEntity;
 import com.adobe.marketing.mobile.services.HitProcessing;
 import com.adobe.marketing.mobile.services.HitProcessingResult;
+import com.adobe.marketing.mobile.services.HttpMethod;
 import com.adobe.marketing.mobile.services.Log;
-import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.services.NetworkRequest;
 import com.adobe.marketing.mobile.services.Networking;
 import com.adobe.marketing.mobile.services.ServiceProvider;
@@ -25,20 +25,40 @@ import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Implements {@code HitProcessing} and aids in the necessary tasks to
  * send network requests for the Campaign Extension.
+ * <p>
+ * Tracking hits are sent with a kept-alive connection, so hits sent one after another to the same Campaign server reuse the
+ * connection pooled by the platform's HTTP stack, which closes it once idle. Other hits keep the connection alive only when
+ * {@value CampaignConstants.EventDataKeys.Configuration#CAMPAIGN_KEEP_ALIVE_KEY} was enabled when they were queued.
+ * <p>
+ * Hits are processed asynchronously: the {@code HitProcessingResult} is completed from the network callback without blocking
+ * the hit queue thread. The network service applies the hit's connect and read timeouts and invokes the callback once they
+ * elapse, so a response is never discarded because it arrived late.
+ * <p>
+ * The {@code PersistentHitQueue} only processes the next hit once the current one is completed, so a single hit is in flight
+ * at a time. Hits are not completed before their response is received, as a hit completed early would be removed from the
+ * queue and lost if its request then failed.
  */
 class CampaignHitProcessor implements HitProcessing {
-    private static final int RETRY_INTERVAL = 30;
     private final String SELF_TAG = "CampaignHitProcessor";
+    private final CampaignNamedCollection campaignNamedCollection;
+    private final CampaignHitRetryPolicy retryPolicy = new CampaignHitRetryPolicy();
+
+    /**
+     * Constructor.
+     *
+     * @param campaignNamedCollection {@link CampaignNamedCollection} shared with the {@code CampaignExtension}
+     */
+    CampaignHitProcessor(final CampaignNamedCollection campaignNamedCollection) {
+        this.campaignNamedCollection = campaignNamedCollection;
+    }
 
     @Override
     public int retryInterval(final DataEntity dataEntity) {
-        return RETRY_INTERVAL;
+        return retryPolicy.getRetryInterval(dataEntity != null ? dataEntity.getUniqueIdentifier() : null);
     }
 
     /**
@@ -60,6 +80,8 @@ class CampaignHitProcessor implements HitProcessing {
      * If the {@code NetworkService.HttpConnecting} contains a {@link HttpURLConnection#HTTP_OK} response code, or any additional response code
      * not considered to be a recoverable network error, then this method will return {@code boolean} false.
      * The {@code hit} will be considered processed and will not be retried.
+     * <p>
+     * The connection is kept alive for tracking hits, and for other hits queued with keep-alive enabled.
      *
      * @param dataEntity {@link DataEntity} instance to be processed
      * @param hitProcessingResult {@link HitProcessingResult} containing the status of the hit processing
@@ -82,20 +104,40 @@ class CampaignHitProcessor implements HitProcessing {
             return;
         }
 
-        final Map<String, String> headers = new HashMap<String, String>() {
-            {
-                put(CampaignConstants.HTTP_HEADER_KEY_CONNECTION, "close");
-                put(CampaignConstants.HTTP_HEADER_KEY_CONTENT_TYPE, CampaignConstants.HTTP_HEADER_CONTENT_TYPE_JSON_APPLICATION);
-                put(CampaignConstants.HTTP_HEADER_KEY_ACCEPT, "*/*");
-            }
-        };
         final Networking networkService = ServiceProvider.getInstance().getNetworkService();
         if (networkService == null) {
             Log.warning(CampaignConstants.LOG_TAG, SELF_TAG,
                     "processHit -The network service is unavailable, the hit will be retried later.");
+            retryPolicy.recordFailedAttempt(dataEntity.getUniqueIdentifier(), false, 0);
             hitProcessingResult.complete(false);
             return;
         }
+
+        final boolean keepAlive = campaignHit.keepAlive || campaignHit.getHttpCommand() == HttpMethod.GET;
+        sendHit(networkService, dataEntity.getUniqueIdentifier(), campaignHit, keepAlive, hitProcessingResult);
+    }
+
+    /**
+     * Sends the provided {@code CampaignHit}.
+     * <p>
+     * The {@code hitProcessingResult} is completed once, from the network callback. Failed attempts are recorded with the
+     * {@link CampaignHitRetryPolicy}, which spaces out the retries and discards the hit once the Campaign server asked for it to be
+     * retried too many times. Hits which could not reach the Campaign server are always retried.
+     *
+     * @param networkService      {@link Networking} used to send the hit
+     * @param hitId               {@link String} containing the data entity id of the hit
+     * @param campaignHit         {@link CampaignHit} to send
+     * @param keepAlive           {@code boolean} indicating whether the connection to the Campaign server should be kept alive
+     * @param hitProcessingResult {@link HitProcessingResult} completed with true if the hit was processed, false if it should be retried
+     */
+    private void sendHit(final Networking networkService, final String hitId, final CampaignHit campaignHit, final boolean keepAlive, final HitProcessingResult hitProcessingResult) {
+        final Map<String, String> headers = new HashMap<String, String>() {
+            {
+                put(CampaignConstants.HTTP_HEADER_KEY_CONNECTION, keepAlive ? "keep-alive" : "close");
+                put(CampaignConstants.HTTP_HEADER_KEY_CONTENT_TYPE, CampaignConstants.HTTP_HEADER_CONTENT_TYPE_JSON_APPLICATION);
+                put(CampaignConstants.HTTP_HEADER_KEY_ACCEPT, "*/*");
+            }
+        };
         final NetworkRequest networkRequest = new NetworkRequest(campaignHit.url,
                 campaignHit.getHttpCommand(),
                 campaignHit.payload.getBytes(StandardCharsets.UTF_8),
@@ -103,34 +145,43 @@ class CampaignHitProcessor implements HitProcessing {
                 campaignHit.timeout,
                 campaignHit.timeout);
 
-        final CountDownLatch latch = new CountDownLatch(1);
+        final HitProcessingResult hitResult = processed -> {
+            if (processed) {
+                retryPolicy.clear(hitId);
+                if (campaignHit.getHttpCommand() == HttpMethod.POST) {
+                    clearPendingRegistrationInNamedCollection(campaignHit.url);
+                }
+            }
+            hitProcessingResult.complete(processed);
+        };
         networkService.connectAsync(networkRequest, connection -> {
             if (connection == null || (connection.getResponseCode() == CampaignConstants.INVALID_CONNECTION_RESPONSE_CODE)) {
                 Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                         "processHit - Could not process a Campaign network request because the connection was null or response code was invalid. Retrying the request.");
-                hitProcessingResult.complete(false);
+                retryPolicy.recordFailedAttempt(hitId, false, 0);
+                hitResult.complete(false);
             } else if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
                 Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "processHit - Request was sent to (%s)", campaignHit.url);
                 updateTimestampInNamedCollection(System.currentTimeMillis());
-                hitProcessingResult.complete(true);
+                hitResult.complete(true);
                 connection.close();
             } else if (!CampaignConstants.recoverableNetworkErrorCodes.contains(connection.getResponseCode())) {
                 Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                         "processHit - Unrecoverable network error while processing requests. Discarding request.");
-                hitProcessingResult.complete(true);
+                hitResult.complete(true);
                 connection.close();
-            } else {
+            } else if (retryPolicy.recordFailedAttempt(hitId, true, Utils.extractRetryAfterSecondsFromResponse(connection))) {
                 Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                         "processHit - Recoverable network error while processing requests, will retry.");
-                hitProcessingResult.complete(false);
+                hitResult.complete(false);
+                connection.close();
+            } else {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "processHit - Recoverable network error while processing requests, maximum retry attempts reached. Discarding request.");
+                hitResult.complete(true);
+                connection.close();
             }
-            latch.countDown();
         });
-        try {
-            latch.await((CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT + 1), TimeUnit.SECONDS);
-        } catch (final InterruptedException e) {
-            Log.warning(CampaignConstants.LOG_TAG, SELF_TAG, "processHit - exception occurred while waiting for connectAsync latch: %s", e.getMessage());
-        }
     }
 
     /**
@@ -140,8 +191,7 @@ class CampaignHitProcessor implements HitProcessing {
      * @param timestamp {@code long} containing the time of the last successful registration.
      */
     protected void updateTimestampInNamedCollection(final long timestamp) {
-        final NamedCollection campaignNamedCollection = ServiceProvider.getInstance().getDataStoreService().getNamedCollection(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_NAME);
-        if (campaignNamedCollection == null) {
+        if (!campaignNamedCollection.isAvailable()) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "updateTimestampInNamedCollection -  Campaign Data store is not available to update.");
             return;
@@ -151,4 +201,26 @@ class CampaignHitProcessor implements HitProcessing {
                 "updateTimestampInNamedCollection -  Persisting timestamp (%d) in Campaign Data Store.", timestamp);
         campaignNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, timestamp);
     }
-}
\ No newline at end of file
+
+    /**
+     * Removes {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY} and
+     * {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY} from {@code CampaignExtension}'s {@code NamedCollection}
+     * if it matches the registration request which was sent or dropped.
+     *
+     * @param registrationUrl {@code String} containing the url of the sent or dropped registration request.
+     */
+    protected void clearPendingRegistrationInNamedCollection(final String registrationUrl) {
+        if (!campaignNamedCollection.isAvailable()) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "clearPendingRegistrationInNamedCollection -  Campaign Data store is not available to update.");
+            return;
+        }
+
+        if (registrationUrl.equals(campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, null))) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "clearPendingRegistrationInNamedCollection -  Removing pending registration (%s) from Campaign Data Store.", registrationUrl);
+            campaignNamedCollection.remove(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY);
+            campaignNamedCollection.remove(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.services.Log;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the retry intervals of the Campaign hits which could not be sent.
+ * <p>
+ * Retries of a hit are spaced with an exponential backoff, starting at {@value CampaignConstants#CAMPAIGN_HIT_INITIAL_RETRY_INTERVAL_SECONDS}
+ * seconds and capped at {@value CampaignConstants#CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS} seconds, with a random jitter so devices
+ * do not retry in lockstep. A {@code Retry-After} value sent by the Campaign server takes precedence over the backoff.
+ * <p>
+ * A hit is discarded after the Campaign server asked for it to be retried {@value CampaignConstants#CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS} times.
+ * Connectivity failures only space the retries out: a device may stay offline for long periods, and its hits are sent once it is
+ * back online.
+ * <p>
+ * The retry state is only kept in memory: it is reset when the application restarts, and the queued hits are then retried
+ * as if they had never failed.
+ */
+class CampaignHitRetryPolicy {
+    private static final String SELF_TAG = "CampaignHitRetryPolicy";
+    // retry state of the hits being retried, keyed by data entity id
+    private final Map<String, RetryState> retryStates = new ConcurrentHashMap<>();
+    private final Random random;
+
+    /**
+     * Constructor.
+     */
+    CampaignHitRetryPolicy() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param random {@link Random} used to compute the retry interval jitter
+     */
+    CampaignHitRetryPolicy(final Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Records a failed attempt to send the hit with the given {@code hitId}.
+     *
+     * @param hitId             {@link String} containing the data entity id of the hit
+     * @param serverError       {@code boolean} indicating whether the Campaign server responded with a recoverable error
+     * @param retryAfterSeconds {@code int} containing the {@code Retry-After} value sent by the Campaign server, 0 if none
+     * @return {@code boolean} indicating whether the hit should be retried, false if the Campaign server asked for it to be retried
+     * too many times
+     */
+    synchronized boolean recordFailedAttempt(final String hitId, final boolean serverError, final int retryAfterSeconds) {
+        RetryState retryState = retryStates.get(hitId);
+        if (retryState == null) {
+            retryState = new RetryState();
+            retryStates.put(hitId, retryState);
+        }
+
+        retryState.attempts++;
+        retryState.retryAfterSeconds = retryAfterSeconds;
+        if (serverError && ++retryState.serverErrors >= CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "recordFailedAttempt - Hit %s was rejected by the Campaign server %d times, it will not be retried.", hitId, retryState.serverErrors);
+            retryStates.remove(hitId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clears the retry state of the hit with the given {@code hitId} once it is processed.
+     *
+     * @param hitId {@link String} containing the data entity id of the hit
+     */
+    void clear(final String hitId) {
+        retryStates.remove(hitId);
+    }
+
+    /**
+     * Returns the number of seconds to wait before retrying the hit with the given {@code hitId}.
+     *
+     * @param hitId {@link String} containing the data entity id of the hit
+     * @return {@code int} containing the retry interval in seconds
+     */
+    int getRetryInterval(final String hitId) {
+        final RetryState retryState = hitId != null ? retryStates.get(hitId) : null;
+        if (retryState == null || retryState.attempts == 0) {
+            return CampaignConstants.CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS;
+        }
+
+        if (retryState.retryAfterSeconds > 0) {
+            return Math.min(retryState.retryAfterSeconds, CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_AFTER_SECONDS);
+        }
+
+        // exponential backoff capped at the max retry interval, with a jitter of up to half the interval
+        final int exponent = Math.min(retryState.attempts - 1, 30);
+        final long backoff = Math.min((long) CampaignConstants.CAMPAIGN_HIT_INITIAL_RETRY_INTERVAL_SECONDS << exponent,
+                CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS);
+        final int halfBackoff = (int) (backoff / 2);
+        return (int) (backoff - halfBackoff) + random.nextInt(halfBackoff + 1);
+    }
+
+    /**
+     * Failed attempts to send a hit.
+     */
+    private static final class RetryState {
+        int attempts;
+        int serverErrors;
+        int retryAfterSeconds;
+    }
+}
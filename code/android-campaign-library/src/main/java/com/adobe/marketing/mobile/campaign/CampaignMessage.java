@@ -19,22 +19,22 @@ import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.URLDecoder;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@code CampaignMessage} class serves as the base class for any implementation of an in-app message type.
  */
 abstract class CampaignMessage {
     private static final String SELF_TAG = "CampaignMessage";
-    private static final Map<String, Class> messageTypeDictionary = new HashMap<String, Class>();
+    private static final Map<String, MessageFactory> messageFactories = new ConcurrentHashMap<>();
 
     static {
-        messageTypeDictionary.put(CampaignConstants.MESSAGE_TEMPLATE_FULLSCREEN, FullScreenMessage.class);
-        messageTypeDictionary.put(CampaignConstants.MESSAGE_TEMPLATE_ALERT, AlertMessage.class);
-        messageTypeDictionary.put(CampaignConstants.MESSAGE_TEMPLATE_LOCAL_NOTIFICATION, LocalNotificationMessage.class);
+        messageFactories.put(CampaignConstants.MESSAGE_TEMPLATE_FULLSCREEN, FullScreenMessage::new);
+        messageFactories.put(CampaignConstants.MESSAGE_TEMPLATE_ALERT, AlertMessage::new);
+        messageFactories.put(CampaignConstants.MESSAGE_TEMPLATE_LOCAL_NOTIFICATION, LocalNotificationMessage::new);
     }
 
     protected final String messageId;
@@ -94,19 +94,19 @@ abstract class CampaignMessage {
      * Static method that should be used to create an instance of any {@code CampaignMessage} subclass.
      * <p>
      * Verifies that the {@code consequence} parameter contains a valid {@code CampaignMessage} definition payload. If it does,
-     * this method will detect and call the proper constructor for the corresponding {@link CampaignMessage} subclass.
+     * this method will call the {@link MessageFactory} registered for the message template.
      * <p>
      * At this stage in {@code CampaignMessage} initialization, the only required JSON field is {@value CampaignConstants.EventDataKeys.RuleEngine#MESSAGE_CONSEQUENCE_DETAIL_KEY_TEMPLATE}.
      * If this value is missing, null, or empty, a {@link CampaignMessageRequiredFieldMissingException} will be thrown.
      *
      * @param extension   {@link CampaignExtension} instance that is the parent of this {@code CampaignMessage}
      * @param consequence {@link RuleConsequence} instance containing a {@code CampaignMessage}-defining payload
-     * @return {@code CampaignMessage} that has been initialized using its proper constructor
+     * @return {@code CampaignMessage} that has been initialized by its {@code MessageFactory}, or null if the message template
+     * is not supported or the message could not be created
      * @throws CampaignMessageRequiredFieldMissingException if {@code consequence} is null or if any required field for a
      *                                                      {@code CampaignMessage} is null or empty
+     * @see #registerMessageFactory(String, MessageFactory)
      */
-    @SuppressWarnings("unchecked")
-    // reflective access to the proper message constructor requires this access
     static CampaignMessage createMessageObject(final CampaignExtension extension, final RuleConsequence consequence)
             throws CampaignMessageRequiredFieldMissingException {
         // fast fail
@@ -131,35 +131,39 @@ abstract class CampaignMessage {
             throw new CampaignMessageRequiredFieldMissingException("Required message field: Message template is null or empty.");
         }
 
-        final Class messageClass = messageTypeDictionary.get(template);
+        final MessageFactory messageFactory = messageFactories.get(template);
 
-        if (messageClass == null) {
+        if (messageFactory == null) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
                     "createMessageObject -  Provided message type is not supported. Unable to proceed.");
             return null;
         }
 
-        CampaignMessage msgObject = null;
-
         try {
-            msgObject = (CampaignMessage) messageClass.getDeclaredConstructor(CampaignExtension.class, RuleConsequence.class).newInstance(extension, consequence);
-        } catch (final IllegalAccessException e) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "createMessageObject -  Caught IllegalAccessException exception while trying to instantiate Message object. \n (%s)",
-                    e);
-        } catch (final InstantiationException e) {
+            return messageFactory.create(extension, consequence);
+        } catch (final CampaignMessageRequiredFieldMissingException e) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "createMessageObject -  Caught InstantiationException exception while trying to instantiate Message object.\n (%s)", e);
-        } catch (final NoSuchMethodException e) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "createMessageObject -  Caught NoSuchMethodException exception while trying to instantiate Message object. \n (%s)", e);
-        } catch (final InvocationTargetException e) {
+                    "createMessageObject -  Unable to create the (%s) message object. \n (%s)", template, e);
+            return null;
+        }
+    }
+
+    /**
+     * Registers the {@code MessageFactory} used to create the {@code CampaignMessage} objects for the given {@code template}.
+     * <p>
+     * A factory registered for an already supported {@code template} replaces the existing one.
+     *
+     * @param template       {@link String} containing the {@value CampaignConstants.EventDataKeys.RuleEngine#MESSAGE_CONSEQUENCE_DETAIL_KEY_TEMPLATE} value
+     * @param messageFactory {@link MessageFactory} creating the {@code CampaignMessage} objects for the {@code template}
+     */
+    static void registerMessageFactory(final String template, final MessageFactory messageFactory) {
+        if (StringUtils.isNullOrEmpty(template) || messageFactory == null) {
             Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "createMessageObject -  Caught InvocationTargetException exception while trying to instantiate Message object. \n (%s)",
-                    e);
+                    "registerMessageFactory -  Unable to register a message factory, the template or factory is null.");
+            return;
         }
 
-        return msgObject;
+        messageFactories.put(template, messageFactory);
     }
 
     /**
@@ -336,4 +340,20 @@ abstract class CampaignMessage {
      * @return {@code boolean} indicating whether this should download assets
      */
     abstract boolean shouldDownloadAssets();
+
+    /**
+     * Creates the {@code CampaignMessage} objects for a message template.
+     */
+    interface MessageFactory {
+        /**
+         * Creates a {@code CampaignMessage} from the given {@code consequence}.
+         *
+         * @param extension   {@link CampaignExtension} instance that is the parent of the {@code CampaignMessage}
+         * @param consequence {@link RuleConsequence} instance containing a {@code CampaignMessage}-defining payload
+         * @return the created {@link CampaignMessage}
+         * @throws CampaignMessageRequiredFieldMissingException if any required field for the {@code CampaignMessage} is null or empty
+         */
+        CampaignMessage create(final CampaignExtension extension, final RuleConsequence consequence)
+                throws CampaignMessageRequiredFieldMissingException;
+    }
 }
\ No newline at end of file
@@ -11,24 +11,15 @@
 
 package com.adobe.marketing.mobile.campaign;
 
-import com.adobe.marketing.mobile.services.DeviceInforming;
-import com.adobe.marketing.mobile.services.HttpConnecting;
-import com.adobe.marketing.mobile.services.HttpMethod;
 import com.adobe.marketing.mobile.services.Log;
-import com.adobe.marketing.mobile.services.NetworkRequest;
-import com.adobe.marketing.mobile.services.Networking;
-import com.adobe.marketing.mobile.services.ServiceProvider;
-import com.adobe.marketing.mobile.services.caching.CacheEntry;
-import com.adobe.marketing.mobile.services.caching.CacheExpiry;
-import com.adobe.marketing.mobile.services.caching.CacheResult;
-import com.adobe.marketing.mobile.services.caching.CacheService;
 import com.adobe.marketing.mobile.util.UrlUtils;
 
-import java.io.File;
-import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Assists in downloading and caching assets for {@code CampaignMessage}s.
@@ -36,33 +27,58 @@ import java.util.Map;
 class CampaignMessageAssetsDownloader {
     private static final String SELF_TAG = "CampaignMessageAssetsDownloader";
     private final List<String> assetsCollection;
-    private final Networking networkService;
-    private final DeviceInforming deviceInfoService;
-    private final CacheService cacheService;
+    private final CampaignAssetCache assetCache;
+    private final CampaignAssetDownloadScheduler assetDownloadScheduler;
     private final String messageId;
-    private File assetDir;
+    private final int priority;
+    private final Runnable assetsDownloadedListener;
 
     /**
      * Constructor.
      *
-     * @param assets          {@code ArrayList<String>} of assets to download and cache
-     * @param parentMessageId {@link String} containing the message Id of the requesting message used as a cache subdirectory
+     * @param assets                 {@code ArrayList<String>} of assets to download and cache
+     * @param parentMessageId        {@link String} containing the message Id of the requesting message
+     * @param assetCache             {@link CampaignAssetCache} storing the message manifest and the downloaded assets
+     * @param assetDownloadScheduler {@link CampaignAssetDownloadScheduler} shared by all the messages to schedule asset downloads
+     * @param priority               {@code int} containing the download priority of the message assets, lower values are downloaded first
      */
-    CampaignMessageAssetsDownloader(final List<String> assets, final String parentMessageId) {
+    CampaignMessageAssetsDownloader(final List<String> assets, final String parentMessageId, final CampaignAssetCache assetCache,
+                                    final CampaignAssetDownloadScheduler assetDownloadScheduler, final int priority) {
+        this(assets, parentMessageId, assetCache, assetDownloadScheduler, priority, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assets                   {@code ArrayList<String>} of assets to download and cache
+     * @param parentMessageId          {@link String} containing the message Id of the requesting message
+     * @param assetCache               {@link CampaignAssetCache} storing the message manifest and the downloaded assets
+     * @param assetDownloadScheduler   {@link CampaignAssetDownloadScheduler} shared by all the messages to schedule asset downloads
+     * @param priority                 {@code int} containing the download priority of the message assets, lower values are downloaded first
+     * @param assetsDownloadedListener {@link Runnable} invoked once all the message assets have been downloaded, may be null
+     */
+    CampaignMessageAssetsDownloader(final List<String> assets, final String parentMessageId, final CampaignAssetCache assetCache,
+                                    final CampaignAssetDownloadScheduler assetDownloadScheduler, final int priority,
+                                    final Runnable assetsDownloadedListener) {
         this.assetsCollection = assets;
-        this.networkService = ServiceProvider.getInstance().getNetworkService();
-        this.deviceInfoService = ServiceProvider.getInstance().getDeviceInfoService();
-        this.cacheService = ServiceProvider.getInstance().getCacheService();
+        this.assetCache = assetCache;
+        this.assetDownloadScheduler = assetDownloadScheduler;
         this.messageId = parentMessageId;
-        createMessageAssetCacheDirectory();
+        this.priority = priority;
+        this.assetsDownloadedListener = assetsDownloadedListener;
     }
 
     /**
      * Downloads and caches assets for a {@code CampaignMessage}.
      * <p>
-     * Loops through {@link #assetsCollection} downloads and caches the collection of assets.
+     * Loops through {@link #assetsCollection}, records the downloadable assets in the message manifest and schedules their
+     * download with the {@link CampaignAssetDownloadScheduler}. Once all the downloads have completed, the manifest is updated
+     * with the cached file path of each cached asset, so the message can resolve its assets without probing the cache.
+     * <p>
+     * The {@link #assetsDownloadedListener} is invoked on the thread completing the last download, whether or not each asset
+     * was cached, or immediately if the message has no downloadable asset.
      * <p>
-     * Attempts to purge assets that have previously been cached but are for messages that are no longer active.
+     * Assets that are no longer used by any message are purged by {@link CampaignAssetCache#removeUnusedAssets(java.util.Collection)}.
      */
     void downloadAssetCollection() {
         final ArrayList<String> assetsToRetain = new ArrayList<>();
@@ -75,50 +91,59 @@ class CampaignMessageAssetsDownloader {
             }
         }
 
-        // clear old assets
-        Utils.clearCachedAssetsNotInList(assetDir, assetsToRetain);
+        if (assetsToRetain.isEmpty()) {
+            // nothing to download, the message assets are already resolved
+            cacheResolvedManifest(assetsToRetain, new HashMap<String, String>());
+            notifyAssetsDownloaded();
+            return;
+        }
 
-        // download assets within the assets to retain list
+        // record the assets used by this message
+        if (!assetCache.cacheManifest(messageId, assetsToRetain)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "downloadAssetCollection - Failed to cache the asset manifest for message id %s.", messageId);
+        }
+
+        // download assets within the assets to retain list, resolving the message assets once the last download has completed
+        final AtomicInteger pendingDownloads = new AtomicInteger(assetsToRetain.size());
+        final Map<String, String> resolvedAssets = new ConcurrentHashMap<>();
+        final CampaignAssetDownloadScheduler.CompletionListener completionListener = (url, cachedAssetPath) -> {
+            if (cachedAssetPath != null) {
+                resolvedAssets.put(url, cachedAssetPath);
+            }
+
+            if (pendingDownloads.decrementAndGet() == 0) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "downloadAssetCollection - Finished downloading the assets for message id %s.", messageId);
+                cacheResolvedManifest(assetsToRetain, resolvedAssets);
+                notifyAssetsDownloaded();
+            }
+        };
         for (final String url : assetsToRetain) {
-            // 304 - Not Modified support
-            final CacheResult cachedAsset = cacheService.get(assetDir + File.separator + messageId, url);
-            final Map<String, String> requestProperties = Utils.extractHeadersFromCache(cachedAsset);
-            final NetworkRequest networkRequest = new NetworkRequest(url, HttpMethod.GET, null, requestProperties, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT);
-            networkService.connectAsync(networkRequest, connection -> {
-                if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
-                    Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "downloadAssetCollection - Asset was cached previously: %s", url);
-                    connection.close();
-                    return;
-                } else if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-                    Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "downloadAssetCollection - Failed to download asset from URL: %s", url);
-                    connection.close();
-                    return;
-                }
-                cacheAssetData(connection, url, messageId);
-                connection.close();
-            });
+            assetDownloadScheduler.schedule(url, priority, completionListener);
         }
     }
 
     /**
-     * Caches the provided {@code InputStream} contained in the {@code HttpConnecting} from the given asset URL.
+     * Caches the message manifest mapping the downloaded assets to their cached file paths.
      *
-     * @param connection {@link HttpConnecting} containing the downloaded remote asset data.
-     * @param key        {@code String} The asset download URL. Used to name the cache folder.
-     * @param messageId  {@code String} The id of the message
+     * @param assetUrls      {@code List<String>} containing the downloadable asset urls of the message
+     * @param resolvedAssets {@code Map<String, String>} containing the urls of the cached assets and their cached file paths
+     * @see CampaignAssetCache#cacheResolvedManifest(String, List, Map)
      */
-    private void cacheAssetData(final HttpConnecting connection, final String key, final String messageId) {
-        // create message asset cache directory if needed
-        if (!createDirectoryIfNeeded(messageId)) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "cacheAssetData - Cannot cache asset for message id %s, failed to create cache directory.", messageId);
-            return;
+    private void cacheResolvedManifest(final List<String> assetUrls, final Map<String, String> resolvedAssets) {
+        if (!assetCache.cacheResolvedManifest(messageId, assetUrls, resolvedAssets)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "cacheResolvedManifest - Failed to cache the resolved asset manifest for message id %s.", messageId);
         }
+    }
 
-        Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "cacheAssetData - Caching asset %s for message id %s.", key, messageId);
-        final Map<String, String> metadata = Utils.extractMetadataFromResponse(connection);
-        final String assetStoragePath = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.MESSAGE_CACHE_DIR + File.separator + messageId;
-        final CacheEntry cacheEntry = new CacheEntry(connection.getInputStream(), CacheExpiry.never(), metadata);
-        cacheService.set(assetStoragePath, key, cacheEntry);
+    /**
+     * Invokes the {@link #assetsDownloadedListener}, if any.
+     */
+    private void notifyAssetsDownloaded() {
+        if (assetsDownloadedListener != null) {
+            assetsDownloadedListener.run();
+        }
     }
 
     /**
@@ -132,43 +157,4 @@ class CampaignMessageAssetsDownloader {
     private boolean assetIsDownloadable(final String assetPath) {
         return UrlUtils.isValidUrl(assetPath) && (assetPath.startsWith("http") || assetPath.startsWith("https"));
     }
-
-    /**
-     * Creates assets cache directory for a {@code CampaignMessage}.
-     * <p>
-     * This method checks if the cache directory already exists in which case no new directory is created for assets.
-     */
-    private void createMessageAssetCacheDirectory() {
-        try {
-            assetDir = new File(deviceInfoService.getApplicationCacheDir() + File.separator + CampaignConstants.AEPSDK_CACHE_BASE_DIR + File.separator + CampaignConstants.CACHE_BASE_DIR + File.separator
-                    + CampaignConstants.MESSAGE_CACHE_DIR);
-
-            if (!assetDir.exists() && !assetDir.mkdirs()) {
-                Log.warning(CampaignConstants.LOG_TAG, SELF_TAG,
-                        "createMessageAssetCacheDirectory - Unable to create directory for caching message assets");
-            }
-        } catch (final Exception ex) {
-            Log.warning(CampaignConstants.LOG_TAG, SELF_TAG, "createMessageAssetCacheDirectory - An unexpected error occurred while managing assets cache directory: \n %s", ex);
-        }
-    }
-
-    /**
-     * Creates assets cache directory for a {@code CampaignMessage}.
-     * <p>
-     * This method checks if the cache directory already exists in which case no new directory is created for assets.
-     *
-     * @param messageId {@code String} The id of the message
-     * @return {@code boolean} if true, the asset cache directory for the message id was created successfully
-     */
-    private boolean createDirectoryIfNeeded(final String messageId) {
-        if (!assetDir.exists()) {
-            return false;
-        }
-
-        final File cacheDirectory = new File(assetDir + File.separator + messageId);
-        if (!cacheDirectory.exists()) {
-            return cacheDirectory.mkdir();
-        }
-        return true;
-    }
-}
\ No newline at end of file
+}
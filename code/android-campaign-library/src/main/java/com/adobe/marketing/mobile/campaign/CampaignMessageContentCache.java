@@ -0,0 +1,167 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size-bounded, least recently used in-memory cache of the content shown by {@code FullScreenMessage}s.
+ * <p>
+ * Each entry holds the html read from the rules cache and the map of remote asset urls to cached asset paths of a message,
+ * so that showing the same message again does not read the html or probe the asset cache on disk.
+ * <p>
+ * Entries are keyed by message id and html file name, and are only valid for the version of the Campaign rules they were
+ * read from. All entries are removed when rules with different {@value CampaignConstants#HTTP_HEADER_ETAG} and
+ * {@value CampaignConstants#HTTP_HEADER_LAST_MODIFIED} validators are registered, or when the rules are unregistered.
+ * The entries using an asset are removed when that asset is cached again.
+ */
+class CampaignMessageContentCache {
+    private static final String SELF_TAG = "CampaignMessageContentCache";
+    private final Map<String, Content> entries;
+    private String rulesVersion;
+
+    /**
+     * Constructor.
+     * <p>
+     * The cache holds at most {@value CampaignConstants#MESSAGE_CONTENT_CACHE_MAX_ENTRIES} entries.
+     */
+    CampaignMessageContentCache() {
+        this(CampaignConstants.MESSAGE_CONTENT_CACHE_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries {@code int} containing the maximum number of entries held by the cache
+     */
+    CampaignMessageContentCache(final int maxEntries) {
+        final int capacity = Math.max(1, maxEntries);
+        entries = new LinkedHashMap<String, Content>(capacity + 1, 1.0f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Content> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cached content of the message with the given {@code messageId} and {@code html} file name.
+     *
+     * @param messageId {@link String} containing the message id
+     * @param html      {@link String} containing the message html file name
+     * @return the cached {@link Content}, or null if no content is cached for the message
+     */
+    synchronized Content get(final String messageId, final String html) {
+        return entries.get(getKey(messageId, html));
+    }
+
+    /**
+     * Caches the content of the message with the given {@code messageId} and {@code html} file name.
+     *
+     * @param messageId   {@link String} containing the message id
+     * @param html        {@link String} containing the message html file name
+     * @param htmlContent {@link String} containing the message html
+     * @param assetUrls   {@code Collection<String>} containing all the remote asset urls the {@code localAssets} were resolved from
+     * @param localAssets {@code Map<String, String>} containing the remote asset urls and their cached asset paths
+     * @return the cached {@link Content}
+     */
+    synchronized Content put(final String messageId, final String html, final String htmlContent,
+                             final Collection<String> assetUrls, final Map<String, String> localAssets) {
+        final Content content = new Content(htmlContent, assetUrls, localAssets);
+        if (!StringUtils.isNullOrEmpty(messageId) && !StringUtils.isNullOrEmpty(html)) {
+            entries.put(getKey(messageId, html), content);
+        }
+        return content;
+    }
+
+    /**
+     * Sets the version of the Campaign rules the cached content is read from.
+     * <p>
+     * All entries are removed if the {@code version} differs from the current one.
+     *
+     * @param version {@link String} identifying the registered Campaign rules, or null if no rules are registered
+     */
+    synchronized void setRulesVersion(final String version) {
+        if (version != null && version.equals(rulesVersion)) {
+            return;
+        }
+
+        if (!entries.isEmpty()) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "setRulesVersion - Campaign rules changed, removing %d cached message(s).", entries.size());
+            entries.clear();
+        }
+        rulesVersion = version;
+    }
+
+    /**
+     * Removes the entries of the messages using the asset with the given {@code url}.
+     *
+     * @param url {@link String} containing the asset url
+     */
+    synchronized void invalidateAsset(final String url) {
+        final Iterator<Content> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().assetUrls.contains(url)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    private static String getKey(final String messageId, final String html) {
+        return messageId + "|" + html;
+    }
+
+    /**
+     * Immutable content of a {@code FullScreenMessage}.
+     */
+    static final class Content {
+        private final String html;
+        private final Set<String> assetUrls;
+        private final Map<String, String> localAssets;
+
+        Content(final String html, final Collection<String> assetUrls, final Map<String, String> localAssets) {
+            this.html = html;
+            this.assetUrls = assetUrls != null
+                    ? Collections.unmodifiableSet(new HashSet<>(assetUrls))
+                    : Collections.<String>emptySet();
+            this.localAssets = localAssets != null && !localAssets.isEmpty()
+                    ? Collections.unmodifiableMap(new HashMap<>(localAssets))
+                    : Collections.<String, String>emptyMap();
+        }
+
+        String getHtml() {
+            return html;
+        }
+
+        Map<String, String> getLocalAssets() {
+            return localAssets;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory, write-through view of the {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_NAME} {@link NamedCollection}.
+ * <p>
+ * The values read on the registration and hit processing paths (experience cloud id, remotes url, registration timestamp and
+ * pending registration) are loaded from the persistent store once, on first use, and are then served from memory.
+ * Writes update both the memory and the persistent store. Other keys are read from and written to the persistent store directly.
+ * <p>
+ * A single instance is shared by the {@code CampaignExtension}, the {@code CampaignRulesDownloader} and the {@code CampaignHitProcessor}
+ * so that they all see the same values.
+ */
+class CampaignNamedCollection implements NamedCollection {
+    private static final String SELF_TAG = "CampaignNamedCollection";
+    private static final Set<String> CACHED_STRING_KEYS = new HashSet<>(Arrays.asList(
+            CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY,
+            CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY,
+            CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY));
+    private static final Set<String> CACHED_LONG_KEYS = new HashSet<>(Arrays.asList(
+            CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY));
+    private final DataStoring dataStoreService;
+    private final Map<String, Object> cachedValues = new HashMap<>();
+    private NamedCollection persistentCollection;
+
+    /**
+     * Constructor.
+     * <p>
+     * The persistent store is retrieved from the {@link DataStoring} service of the {@link ServiceProvider}.
+     */
+    CampaignNamedCollection() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataStoreService {@link DataStoring} providing the persistent store, or null to use the {@link ServiceProvider} one
+     */
+    CampaignNamedCollection(final DataStoring dataStoreService) {
+        this.dataStoreService = dataStoreService;
+    }
+
+    /**
+     * Determines whether the persistent store is available.
+     *
+     * @return {@code boolean} indicating whether the persistent store is available
+     */
+    boolean isAvailable() {
+        return getPersistentCollection() != null;
+    }
+
+    @Override
+    public void setInt(final String key, final int value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection != null) {
+            collection.setInt(key, value);
+        }
+    }
+
+    @Override
+    public int getInt(final String key, final int defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        return collection != null ? collection.getInt(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public synchronized void setString(final String key, final String value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return;
+        }
+
+        if (CACHED_STRING_KEYS.contains(key)) {
+            cachedValues.put(key, value);
+        }
+        collection.setString(key, value);
+    }
+
+    @Override
+    public synchronized String getString(final String key, final String defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return defaultValue;
+        }
+
+        if (CACHED_STRING_KEYS.contains(key)) {
+            final Object value = cachedValues.get(key);
+            return value instanceof String ? (String) value : defaultValue;
+        }
+        return collection.getString(key, defaultValue);
+    }
+
+    @Override
+    public void setDouble(final String key, final double value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection != null) {
+            collection.setDouble(key, value);
+        }
+    }
+
+    @Override
+    public double getDouble(final String key, final double defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        return collection != null ? collection.getDouble(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public synchronized void setLong(final String key, final long value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return;
+        }
+
+        if (CACHED_LONG_KEYS.contains(key)) {
+            cachedValues.put(key, value);
+        }
+        collection.setLong(key, value);
+    }
+
+    @Override
+    public synchronized long getLong(final String key, final long defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return defaultValue;
+        }
+
+        if (CACHED_LONG_KEYS.contains(key)) {
+            final Object value = cachedValues.get(key);
+            return value instanceof Long ? (Long) value : defaultValue;
+        }
+        return collection.getLong(key, defaultValue);
+    }
+
+    @Override
+    public void setFloat(final String key, final float value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection != null) {
+            collection.setFloat(key, value);
+        }
+    }
+
+    @Override
+    public float getFloat(final String key, final float defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        return collection != null ? collection.getFloat(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public void setBoolean(final String key, final boolean value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection != null) {
+            collection.setBoolean(key, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final String key, final boolean defaultValue) {
+        final NamedCollection collection = getPersistentCollection();
+        return collection != null ? collection.getBoolean(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public void setMap(final String key, final Map<String, String> value) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection != null) {
+            collection.setMap(key, value);
+        }
+    }
+
+    @Override
+    public Map<String, String> getMap(final String key) {
+        final NamedCollection collection = getPersistentCollection();
+        return collection != null ? collection.getMap(key) : null;
+    }
+
+    @Override
+    public synchronized boolean contains(final String key) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return false;
+        }
+
+        if (CACHED_STRING_KEYS.contains(key) || CACHED_LONG_KEYS.contains(key)) {
+            return cachedValues.get(key) != null;
+        }
+        return collection.contains(key);
+    }
+
+    @Override
+    public synchronized void remove(final String key) {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return;
+        }
+
+        cachedValues.remove(key);
+        collection.remove(key);
+    }
+
+    @Override
+    public synchronized void removeAll() {
+        final NamedCollection collection = getPersistentCollection();
+        if (collection == null) {
+            return;
+        }
+
+        cachedValues.clear();
+        collection.removeAll();
+    }
+
+    /**
+     * Retrieves the persistent store, loading the cached values the first time it is available.
+     *
+     * @return the Campaign {@link NamedCollection}, or null if the data store service is unavailable
+     */
+    private synchronized NamedCollection getPersistentCollection() {
+        if (persistentCollection != null) {
+            return persistentCollection;
+        }
+
+        final DataStoring dataStoring = dataStoreService != null ? dataStoreService : ServiceProvider.getInstance().getDataStoreService();
+        persistentCollection = dataStoring != null ? dataStoring.getNamedCollection(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_NAME) : null;
+        if (persistentCollection == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "getPersistentCollection - Campaign Named Collection is not available.");
+            return null;
+        }
+
+        for (final String key : CACHED_STRING_KEYS) {
+            final String value = persistentCollection.getString(key, null);
+            if (value != null) {
+                cachedValues.put(key, value);
+            }
+        }
+        for (final String key : CACHED_LONG_KEYS) {
+            final long value = persistentCollection.getLong(key, Long.MIN_VALUE);
+            if (value != Long.MIN_VALUE) {
+                cachedValues.put(key, value);
+            }
+        }
+        return persistentCollection;
+    }
+}
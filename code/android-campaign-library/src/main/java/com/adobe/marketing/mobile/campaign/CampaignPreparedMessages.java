@@ -0,0 +1,111 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the {@code CampaignMessage} objects created from the consequences of the loaded Campaign rules, keyed by consequence id.
+ * <p>
+ * The messages are created whenever rules are registered with the Campaign {@code LaunchRulesEngine}, so that a triggered
+ * consequence does not need to be validated and parsed again, and malformed messages are reported when the rules are loaded.
+ * <p>
+ * {@link com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine#process(com.adobe.marketing.mobile.Event)} returns the
+ * triggered rules without expanding the tokens of their consequences, so a triggered consequence is always identical to the one
+ * the message was prepared from. A prepared message is shown on every trigger and must not keep any state between shows.
+ */
+class CampaignPreparedMessages {
+    private static final String SELF_TAG = "CampaignPreparedMessages";
+    private final CampaignExtension extension;
+    private volatile Map<String, CampaignMessage> messages = Collections.emptyMap();
+
+    /**
+     * Constructor.
+     *
+     * @param extension {@link CampaignExtension} instance that is the parent of the prepared {@code CampaignMessage}s
+     */
+    CampaignPreparedMessages(final CampaignExtension extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Replaces the prepared messages with the ones created from the {@value CampaignConstants#MESSAGE_CONSEQUENCE_MESSAGE_TYPE}
+     * consequences of the provided {@code campaignRules}.
+     *
+     * @param campaignRules {@code List<LaunchRule>} of rules registered with the rules engine
+     * @see CampaignMessage#createMessageObject(CampaignExtension, RuleConsequence)
+     */
+    void update(final List<LaunchRule> campaignRules) {
+        if (campaignRules == null || campaignRules.isEmpty()) {
+            clear();
+            return;
+        }
+
+        final Map<String, CampaignMessage> preparedMessages = new HashMap<>();
+        for (final LaunchRule rule : campaignRules) {
+            for (final RuleConsequence consequence : rule.getConsequenceList()) {
+                final String consequenceId = consequence.getId();
+                if (StringUtils.isNullOrEmpty(consequenceId)
+                        || !CampaignConstants.MESSAGE_CONSEQUENCE_MESSAGE_TYPE.equals(consequence.getType())
+                        || preparedMessages.containsKey(consequenceId)) {
+                    continue;
+                }
+
+                try {
+                    final CampaignMessage message = CampaignMessage.createMessageObject(extension, consequence);
+                    if (message == null) {
+                        Log.warning(CampaignConstants.LOG_TAG, SELF_TAG,
+                                "update - Message with ID (%s) is not supported or is invalid.", consequenceId);
+                        continue;
+                    }
+
+                    preparedMessages.put(consequenceId, message);
+                } catch (final CampaignMessageRequiredFieldMissingException exception) {
+                    Log.warning(CampaignConstants.LOG_TAG, SELF_TAG,
+                            "update - Message with ID (%s) is invalid (%s).", consequenceId, exception.getMessage());
+                }
+            }
+        }
+
+        Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "update - Prepared %s Campaign message(s).", preparedMessages.size());
+        messages = Collections.unmodifiableMap(preparedMessages);
+    }
+
+    /**
+     * Removes all the prepared messages.
+     */
+    void clear() {
+        messages = Collections.emptyMap();
+    }
+
+    /**
+     * Retrieves the message prepared for the provided {@code consequence}.
+     *
+     * @param consequence the triggered {@link RuleConsequence}
+     * @return the prepared {@link CampaignMessage}, or null if no message was prepared for the {@code consequence}
+     */
+    CampaignMessage get(final RuleConsequence consequence) {
+        if (consequence == null || consequence.getId() == null) {
+            return null;
+        }
+
+        return messages.get(consequence.getId());
+    }
+}
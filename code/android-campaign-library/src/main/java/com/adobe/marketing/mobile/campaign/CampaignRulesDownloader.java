@@ -18,6 +18,7 @@ import com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine;
 import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
 import com.adobe.marketing.mobile.launch.rulesengine.download.RulesLoadResult;
 import com.adobe.marketing.mobile.launch.rulesengine.json.JSONRulesParser;
+import com.adobe.marketing.mobile.services.DeviceInforming;
 import com.adobe.marketing.mobile.services.HttpConnecting;
 import com.adobe.marketing.mobile.services.HttpMethod;
 import com.adobe.marketing.mobile.services.Log;
@@ -33,32 +34,66 @@ import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StreamUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 class CampaignRulesDownloader {
     private final static String SELF_TAG = "CampaignRulesDownloader";
-    private static final String TEMP_RULES_DIR = "campaign_temp";
+    private static final int STREAM_BUFFER_SIZE = 4096;
     private final ExtensionApi extensionApi;
     private final LaunchRulesEngine campaignRulesEngine;
+    private final CampaignRulesEventIndex campaignRulesEventIndex;
+    private final CampaignPreparedMessages campaignPreparedMessages;
+    private final CampaignMessageContentCache messageContentCache;
     private final NamedCollection campaignNamedCollection;
     private final CacheService cacheService;
     private final Networking networkService;
+    private final CampaignAssetCache campaignAssetCache;
+    private final CampaignAssetDownloadScheduler assetDownloadScheduler;
     private CampaignMessageAssetsDownloader campaignMessageAssetsDownloader;
-
-    CampaignRulesDownloader(final ExtensionApi extensionApi, final LaunchRulesEngine campaignRulesEngine, final NamedCollection campaignNamedCollection, final CacheService cacheService) {
+    // validators of the rules currently registered with the campaignRulesEngine, null if no rules are registered
+    private volatile String registeredRulesValidators;
+    // rules currently registered with the campaignRulesEngine, null if no rules are registered, guarded by rulesLock
+    private List<LaunchRule> registeredRules;
+    // set once rules are unregistered, guarded by rulesLock
+    private boolean rulesUnregistered;
+    // guards the rules download request fields below
+    private final Object requestLock = new Object();
+    // serializes writing the rules cache and registering rules
+    private final Object rulesLock = new Object();
+    // generation of the latest rules download request, incremented by each new request and when rules are unregistered
+    private long latestRequestGeneration;
+    // key of the latest rules download request and whether it is still in flight
+    private String latestRequestKey;
+    private boolean latestRequestInFlight;
+    // key and completion time of the last rules download request whose rules were registered, null if none
+    private String completedRequestKey;
+    private long completedRequestTimestamp;
+
+    CampaignRulesDownloader(final ExtensionApi extensionApi, final LaunchRulesEngine campaignRulesEngine, final CampaignRulesEventIndex campaignRulesEventIndex, final CampaignPreparedMessages campaignPreparedMessages, final CampaignMessageContentCache messageContentCache, final NamedCollection campaignNamedCollection, final CacheService cacheService) {
         this.extensionApi = extensionApi;
         this.campaignRulesEngine = campaignRulesEngine;
+        this.campaignRulesEventIndex = campaignRulesEventIndex;
+        this.campaignPreparedMessages = campaignPreparedMessages;
+        this.messageContentCache = messageContentCache;
         this.campaignNamedCollection = campaignNamedCollection;
         this.cacheService = cacheService;
         this.networkService = ServiceProvider.getInstance().getNetworkService();
+        this.campaignAssetCache = new CampaignAssetCache(cacheService, messageContentCache);
+        this.assetDownloadScheduler = new CampaignAssetDownloadScheduler(campaignAssetCache);
     }
 
     /**
@@ -68,6 +103,14 @@ class CampaignRulesDownloader {
      * to cache the downloaded Campaign rules. Once the rules are downloaded, they are registered with the Campaign extension's {@link LaunchRulesEngine} instance.
      * <p>
      * If the given {@code url} is null or empty no rules download happens.
+     * <p>
+     * Requests are identified by the {@code url} and a hash of the {@code linkageFields}. No rules download happens if an identical
+     * request is already in flight, or if the last completed identical request registered the rules which are still cached and registered
+     * less than {@value CampaignConstants#RULES_MIN_REFRESH_INTERVAL_MILLISECONDS} milliseconds ago. Later identical requests send a
+     * conditional request so that updated rules are still downloaded.
+     * <p>
+     * Each request supersedes the previous ones. The response of a superseded request is discarded without writing the rules cache
+     * or registering rules, so only the latest request decides which rules are registered.
      *
      * @param url           {@link String} containing Campaign rules download URL
      * @param linkageFields {@link String} containing optional linkage fields to include when downloading Campaign rules
@@ -85,9 +128,32 @@ class CampaignRulesDownloader {
             return;
         }
 
+        final String requestKey = StringUtils.isNullOrEmpty(linkageFields) ? url : url + "|" + StringEncoder.sha2hash(linkageFields);
+        final CacheResult cachedRules = cacheService.get(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.ZIP_HANDLE);
+        final String cachedRulesValidators = cachedRules != null ? readValidators(cachedRules.getMetadata()) : null;
+        final long requestGeneration;
+        synchronized (requestLock) {
+            if (latestRequestInFlight && requestKey.equals(latestRequestKey)) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "loadRulesFromUrl - Rules download from %s is already in progress.", url);
+                return;
+            }
+
+            if (requestKey.equals(completedRequestKey)
+                    && System.currentTimeMillis() - completedRequestTimestamp < CampaignConstants.RULES_MIN_REFRESH_INTERVAL_MILLISECONDS
+                    && cachedRulesValidators != null && cachedRulesValidators.equals(registeredRulesValidators)) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "loadRulesFromUrl - Rules from %s have just been downloaded and registered.", url);
+                return;
+            }
+
+            requestGeneration = ++latestRequestGeneration;
+            latestRequestKey = requestKey;
+            latestRequestInFlight = true;
+        }
+
         // 304 - Not Modified support
         Map<String, String> requestProperties = new HashMap<>();
-        final CacheResult cachedRules = cacheService.get(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.ZIP_HANDLE);
         if (cachedRules != null) {
             requestProperties = Utils.extractHeadersFromCache(cachedRules);
         }
@@ -105,10 +171,44 @@ class CampaignRulesDownloader {
                 CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT
         );
         networkService.connectAsync(networkRequest, httpConnecting -> {
-            onRulesDownloaded(url, httpConnecting);
+            final boolean rulesRegistered;
+            synchronized (rulesLock) {
+                if (!isLatestRequest(requestGeneration)) {
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                            "loadRulesFromUrl - Ignoring the response from %s, a newer rules download was requested.", url);
+                    if (httpConnecting != null) {
+                        httpConnecting.close();
+                    }
+                    return;
+                }
+
+                rulesRegistered = onRulesDownloaded(url, cachedRulesValidators, httpConnecting);
+            }
+
+            synchronized (requestLock) {
+                if (requestGeneration == latestRequestGeneration) {
+                    latestRequestInFlight = false;
+                    if (rulesRegistered) {
+                        completedRequestKey = latestRequestKey;
+                        completedRequestTimestamp = System.currentTimeMillis();
+                    }
+                }
+            }
         });
     }
 
+    /**
+     * Determines whether the rules download request with the given {@code generation} is the latest one.
+     *
+     * @param generation {@code long} containing the generation of a rules download request
+     * @return {@code boolean} indicating whether no rules download was requested and no rules were unregistered since
+     */
+    private boolean isLatestRequest(final long generation) {
+        synchronized (requestLock) {
+            return generation == latestRequestGeneration;
+        }
+    }
+
     /**
      * Invoked when rules have finished downloading.
      * <p>
@@ -117,46 +217,212 @@ class CampaignRulesDownloader {
      *     <li>Unregister any previously registered rules.</li>
      *     <li>Persist the provided remotes {@code url} in Campaign data store.</li>
      *     <li>Register downloaded rules with the {@code CampaignRulesEngine}.</li>
+     *     <li>Index the event types, sources and event data keys the registered rules can match.</li>
+     *     <li>Prepare the messages defined by the registered rules.</li>
      * </ul>
+     * <p>
+     * If the rules have not been modified and the cached rules identified by {@code cachedRulesValidators} are already registered,
+     * they are kept and only their remote assets are refreshed. Otherwise, the cached rules are registered.
      *
-     * @param connection {@link HttpConnecting} containing the downloaded Campaign rules
+     * @param url                   {@link String} containing the Campaign rules download URL
+     * @param cachedRulesValidators {@link String} identifying the cached rules version sent with the rules download request
+     * @param connection            {@link HttpConnecting} containing the downloaded Campaign rules
+     * @return {@code boolean} indicating whether the downloaded or cached rules are registered
      * @see #updateUrlInNamedCollection(String)
      * @see LaunchRulesEngine#replaceRules(List)
+     * @see CampaignRulesEventIndex#update(String)
      * @see #cacheRemoteAssets(List)
      */
-    private void onRulesDownloaded(final String url, final HttpConnecting connection) {
+    private boolean onRulesDownloaded(final String url, final String cachedRulesValidators, final HttpConnecting connection) {
+        if (connection == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Rules download from %s failed, no connection was established.", url);
+            return false;
+        }
+
         // process the downloaded bundle
-        RulesLoadResult rulesLoadResult;
+        final List<LaunchRule> campaignRules;
         switch (connection.getResponseCode()) {
             case HttpURLConnection.HTTP_OK:
-                rulesLoadResult = extractRules(url, connection.getInputStream(), Utils.extractMetadataFromResponse(connection));
-                // save remotes url in Campaign Named Collection
-                if (rulesLoadResult.getReason() == RulesLoadResult.Reason.SUCCESS) {
-                    updateUrlInNamedCollection(url);
+                final Map<String, String> metadata = Utils.extractMetadataFromResponse(connection);
+                final RulesLoadResult rulesLoadResult = extractRules(url, connection.getInputStream(), metadata);
+                connection.close();
+                if (rulesLoadResult.getData() == null || rulesLoadResult.getReason() != RulesLoadResult.Reason.SUCCESS) {
+                    return false;
                 }
+
+                // save remotes url in Campaign Named Collection
+                updateUrlInNamedCollection(url);
+                // register new rules
+                campaignRules = registerRules(rulesLoadResult.getData(), readValidators(metadata));
                 break;
             case HttpURLConnection.HTTP_NOT_MODIFIED:
-                rulesLoadResult = new RulesLoadResult(StreamUtils.readAsString(cacheService.get(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.RULES_JSON_FILE_NAME).getData()), RulesLoadResult.Reason.NOT_MODIFIED);
-                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Rules from %s have not been modified. Will not re-download rules.", url);
+                connection.close();
+                if (cachedRulesValidators != null && cachedRulesValidators.equals(registeredRulesValidators)) {
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                            "Rules from %s have not been modified and are already registered. Will refresh their assets.", url);
+                    campaignRules = registeredRules;
+                    break;
+                }
+
+                // the cached rules may have been replaced by an earlier request since this request was sent
+                final CacheResult currentCachedRules = cacheService.get(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.ZIP_HANDLE);
+                if (cachedRulesValidators == null || currentCachedRules == null || !cachedRulesValidators.equals(readValidators(currentCachedRules.getMetadata()))) {
+                    Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Rules from %s have not been modified but the cached rules have changed.", url);
+                    return false;
+                }
+
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Rules from %s have not been modified. Will register cached rules.", url);
+                campaignRules = registerCachedRules();
+                if (campaignRules == null) {
+                    // drop the cached validators so the next rules download is not conditional
+                    cacheService.remove(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.ZIP_HANDLE);
+                }
                 break;
             case HttpURLConnection.HTTP_NOT_FOUND:
             default:
                 Log.error(CampaignConstants.LOG_TAG, SELF_TAG, "Received download response: %s", connection.getResponseCode());
                 connection.close();
-                return;
+                return false;
         }
-        connection.close();
 
-        // register new rules
-        if (rulesLoadResult.getData() != null && rulesLoadResult.getReason().equals(RulesLoadResult.Reason.SUCCESS)) {
-            final List<LaunchRule> campaignRules = JSONRulesParser.parse(rulesLoadResult.getData(), extensionApi);
-            if (campaignRules != null) {
-                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Registering %s Campaign rule(s).", campaignRules.size());
-                campaignRulesEngine.replaceRules(campaignRules);
-                // cache any image assets present in each rule consequence
-                cacheRemoteAssets(campaignRules);
+        if (campaignRules == null) {
+            return false;
+        }
+
+        // cache any image assets present in each rule consequence
+        cacheRemoteAssets(campaignRules);
+        return true;
+    }
+
+    /**
+     * Registers the Campaign rules cached by a previous rules download, if any.
+     * <p>
+     * This method is invoked when the Campaign extension is registered so that the cached rules are active without waiting
+     * for the rules download to complete. The cached {@value CampaignConstants#RULES_JSON_FILE_NAME} is only used if its
+     * {@value CampaignConstants#HTTP_HEADER_ETAG} and {@value CampaignConstants#HTTP_HEADER_LAST_MODIFIED} metadata match the ones
+     * stored with the {@value CampaignConstants#ZIP_HANDLE} entry, which is written once all the rules zip entries have been cached.
+     * <p>
+     * Remote assets are not downloaded for the cached rules, they are downloaded or revalidated by the subsequent rules download,
+     * including when its response is {@value HttpURLConnection#HTTP_NOT_MODIFIED}.
+     * <p>
+     * This method reads and parses the cached rules, it should not be called on the event hub thread. As it may run after a rules
+     * download completed or after the rules were unregistered, the cached rules are only registered if no rules were registered
+     * or unregistered before.
+     *
+     * @see #registerCachedRules()
+     */
+    void loadCachedRules() {
+        synchronized (rulesLock) {
+            if (registeredRules != null || rulesUnregistered) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "loadCachedRules - Rules were registered or unregistered already, cached rules will not be loaded.");
+                return;
             }
+
+            registerCachedRules();
+        }
+    }
+
+    /**
+     * Unregisters all the Campaign rules from the {@code CampaignRulesEngine}.
+     * <p>
+     * Responses to rules download requests made before this call are discarded.
+     *
+     * @see LaunchRulesEngine#replaceRules(List)
+     * @see CampaignRulesEventIndex#clear()
+     * @see CampaignPreparedMessages#clear()
+     * @see CampaignMessageContentCache#setRulesVersion(String)
+     */
+    void unregisterRules() {
+        synchronized (requestLock) {
+            latestRequestGeneration++;
+            latestRequestInFlight = false;
+        }
+
+        synchronized (rulesLock) {
+            campaignRulesEngine.replaceRules(null);
+            campaignRulesEventIndex.clear();
+            campaignPreparedMessages.clear();
+            messageContentCache.setRulesVersion(null);
+            registeredRulesValidators = null;
+            registeredRules = null;
+            rulesUnregistered = true;
+        }
+    }
+
+    /**
+     * Registers the Campaign rules cached by a previous rules download if they match the cached rules validators.
+     *
+     * @return {@code List<LaunchRule>} of registered rules, or null if no valid cached rules were found
+     * @see #loadCachedRules()
+     */
+    private List<LaunchRule> registerCachedRules() {
+        final String rulesCacheName = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER;
+        final CacheResult cachedValidators = cacheService.get(rulesCacheName, CampaignConstants.ZIP_HANDLE);
+        final CacheResult cachedRulesJson = cacheService.get(rulesCacheName, CampaignConstants.RULES_JSON_FILE_NAME);
+        if (cachedValidators == null || cachedRulesJson == null) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "registerCachedRules - No cached Campaign rules found.");
+            return null;
+        }
+
+        final String expectedValidators = readValidators(cachedValidators.getMetadata());
+        if (expectedValidators == null || !expectedValidators.equals(readValidators(cachedRulesJson.getMetadata()))) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "registerCachedRules - Cached Campaign rules do not match the cached rules validators, they will not be loaded.");
+            return null;
+        }
+
+        final String rulesJsonString = StreamUtils.readAsString(cachedRulesJson.getData());
+        if (StringUtils.isNullOrEmpty(rulesJsonString)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "registerCachedRules - Cached Campaign rules are empty.");
+            return null;
+        }
+
+        Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "registerCachedRules - Loading cached Campaign rules (%s).", expectedValidators);
+        return registerRules(rulesJsonString, expectedValidators);
+    }
+
+    /**
+     * Parses the provided Campaign rules JSON and registers the parsed rules with the {@code CampaignRulesEngine}.
+     *
+     * @param rulesJsonString {@link String} containing the Campaign rules JSON
+     * @param rulesValidators {@link String} identifying the version of the Campaign rules
+     * @return {@code List<LaunchRule>} of registered rules, or null if the rules JSON could not be parsed
+     * @see LaunchRulesEngine#replaceRules(List)
+     * @see CampaignRulesEventIndex#update(String)
+     * @see CampaignPreparedMessages#update(List)
+     * @see CampaignMessageContentCache#setRulesVersion(String)
+     */
+    private List<LaunchRule> registerRules(final String rulesJsonString, final String rulesValidators) {
+        final List<LaunchRule> campaignRules = JSONRulesParser.parse(rulesJsonString, extensionApi);
+        if (campaignRules == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "registerRules - Unable to parse Campaign rules.");
+            return null;
+        }
+
+        Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Registering %s Campaign rule(s).", campaignRules.size());
+        campaignRulesEngine.replaceRules(campaignRules);
+        campaignRulesEventIndex.update(rulesJsonString);
+        messageContentCache.setRulesVersion(rulesValidators);
+        campaignPreparedMessages.update(campaignRules);
+        registeredRulesValidators = rulesValidators;
+        registeredRules = campaignRules;
+        return campaignRules;
+    }
+
+    /**
+     * Reads the {@value CampaignConstants#HTTP_HEADER_ETAG} and {@value CampaignConstants#HTTP_HEADER_LAST_MODIFIED} validators
+     * stored in the provided rules metadata.
+     *
+     * @param metadata {@code Map<String, String>} containing the rules metadata
+     * @return {@link String} identifying the rules version, or null if the {@code metadata} is null
+     */
+    private String readValidators(final Map<String, String> metadata) {
+        if (metadata == null) {
+            return null;
         }
+
+        return metadata.get(CampaignConstants.HTTP_HEADER_ETAG) + "|" + metadata.get(CampaignConstants.HTTP_HEADER_LAST_MODIFIED);
     }
 
     /**
@@ -165,10 +431,15 @@ class CampaignRulesDownloader {
      * If a consequence in a {@code LaunchRule} does not represent a {@value CampaignConstants#MESSAGE_CONSEQUENCE_MESSAGE_TYPE}
      * consequence or if the consequence Id is not valid, no asset is downloaded for it.
      * <p>
+     * Asset downloads are scheduled with a {@link CampaignAssetDownloadScheduler} shared by all messages, which downloads
+     * each unique asset once. Assets of messages from rules listed first are downloaded first.
+     * <p>
+     * Once all the assets of a message are downloaded, its content is prepared for display.
+     * <p>
      * This method also cleans up any cached files it has on disk for messages which are no longer loaded.
      *
      * @param campaignRules {@code List<LaunchRule>} of rules retrieved from the Campaign instance
-     * @see Utils#clearCachedAssetsNotInList(File, List)
+     * @see CampaignAssetCache#removeUnusedAssets(java.util.Collection)
      */
     void cacheRemoteAssets(final List<LaunchRule> campaignRules) {
         if (campaignRules == null || campaignRules.isEmpty()) {
@@ -178,6 +449,7 @@ class CampaignRulesDownloader {
         }
         // generate a list of loaded message ids so we can clear cached files we no longer need
         final ArrayList<String> loadedMessageIds = new ArrayList<>();
+        int assetDownloadPriority = 0;
 
         for (final LaunchRule rule : campaignRules) {
             for (final RuleConsequence consequence : rule.getConsequenceList()) {
@@ -199,7 +471,8 @@ class CampaignRulesDownloader {
                         Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "cacheRemoteAssets - Can't download assets, no remote assets found in consequence for message id %s", consequence.getId());
                         break;
                     }
-                    campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assetUrls, consequenceId);
+                    campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assetUrls, consequenceId, campaignAssetCache, assetDownloadScheduler, assetDownloadPriority++,
+                            () -> prepareMessageContent(consequence));
                     campaignMessageAssetsDownloader.downloadAssetCollection();
                 } else {
                     Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "cacheRemoteAssets - Can't download assets, Consequence id is null");
@@ -207,63 +480,180 @@ class CampaignRulesDownloader {
             }
         }
 
-        final File messageCacheDir = new File(ServiceProvider.getInstance().getDeviceInfoService().getApplicationCacheDir()
-                + File.separator
-                + CampaignConstants.CACHE_BASE_DIR
-                + File.separator
-                + CampaignConstants.MESSAGE_CACHE_DIR);
-        Utils.clearCachedAssetsNotInList(messageCacheDir, loadedMessageIds);
+        campaignAssetCache.removeUnusedAssets(loadedMessageIds);
+    }
+
+    /**
+     * Prepares the content of the {@code FullScreenMessage} created from the provided {@code consequence} for display, if any.
+     *
+     * @param consequence {@link RuleConsequence} of the message whose assets were downloaded
+     * @see FullScreenMessage#prepareContent()
+     */
+    private void prepareMessageContent(final RuleConsequence consequence) {
+        final CampaignMessage preparedMessage = campaignPreparedMessages.get(consequence);
+        if (!(preparedMessage instanceof FullScreenMessage)) {
+            return;
+        }
+
+        if (!((FullScreenMessage) preparedMessage).prepareContent()) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "prepareMessageContent - Unable to prepare the content of message id %s.", consequence.getId());
+        }
     }
 
     /**
      * Responsible for reading and extracting {@code zipContentStream} and returning a {@code RulesDownloadResult}
-     * with rules. if successful. If the extraction is unsuccessful, returns a {@code RulesDownloadResult} with the
+     * with rules if successful. If the extraction is unsuccessful, returns a {@code RulesDownloadResult} with the
      * error reason.
+     * <p>
+     * The zip entries are streamed directly from {@code zipContentStream} into the {@value CampaignConstants#RULES_STAGING_CACHE_FOLDER}
+     * cache. The {@value CampaignConstants#RULES_JSON_FILE_NAME} entry is kept in memory instead and returned in the
+     * {@code RulesDownloadResult} so it does not need to be read back from the cache.
+     * <p>
+     * The files cached from the previous rules zip are only replaced once the whole zip has been read and contained a
+     * {@value CampaignConstants#RULES_JSON_FILE_NAME} entry. If the extraction fails, the staged entries are removed and the
+     * previously cached rules are left untouched.
+     * <p>
+     * As the rules zip itself is not stored, an empty {@value CampaignConstants#ZIP_HANDLE} entry holding the response {@code metadata}
+     * is cached to support conditional rules download requests.
      *
-     * @param key              the key that will be used for e
+     * @param key              {@link String} containing the rules download URL
      * @param zipContentStream the zip stream that will need to be processed
      * @param metadata         any metadata associated with the zipContentStream
+     * @see #promoteStagedRules(List, byte[], Map)
      */
     private RulesLoadResult extractRules(final String key,
                                          final InputStream zipContentStream,
                                          final Map<String, String> metadata) {
 
         if (zipContentStream == null) {
-            Log.debug(CampaignConstants.LOG_TAG, CampaignConstants.CACHE_BASE_DIR, "Zip content stream is null");
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Zip content stream is null");
             return new RulesLoadResult(null, RulesLoadResult.Reason.NO_DATA);
         }
 
-        // Attempt to create a temporary directory for copying the zipContentStream
-        final File tempDirectory = getTemporaryDirectory(key);
-        if (!tempDirectory.exists() && !tempDirectory.mkdirs()) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Cannot access application cache directory to create temp dir.");
-            return new RulesLoadResult(null, RulesLoadResult.Reason.CANNOT_CREATE_TEMP_DIR);
+        // remove any entries left over by an interrupted extraction
+        removeRulesCacheFiles(CampaignConstants.RULES_STAGING_CACHE_FOLDER, Collections.<String>emptyList());
+
+        final String stagingCacheName = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_STAGING_CACHE_FOLDER;
+        final List<String> stagedFileNames = new ArrayList<>();
+        byte[] rulesJsonBytes = null;
+        try (final ZipInputStream zipInputStream = new ZipInputStream(zipContentStream)) {
+            ZipEntry zipEntry = zipInputStream.getNextEntry();
+            if (zipEntry == null) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Rules response zip from source %s was invalid.", key);
+                return new RulesLoadResult(null, RulesLoadResult.Reason.ZIP_EXTRACTION_FAILED);
+            }
+
+            while (zipEntry != null) {
+                if (!zipEntry.isDirectory()) {
+                    final String fileName = new File(zipEntry.getName()).getName();
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Caching file (%s)", fileName);
+                    if (CampaignConstants.RULES_JSON_FILE_NAME.equals(fileName)) {
+                        rulesJsonBytes = readZipEntry(zipInputStream);
+                    } else if (cacheService.set(stagingCacheName, fileName, new CacheEntry(new ZipEntryInputStream(zipInputStream), CacheExpiry.never(), metadata))) {
+                        stagedFileNames.add(fileName);
+                    }
+                }
+
+                zipInputStream.closeEntry();
+                zipEntry = zipInputStream.getNextEntry();
+            }
+        } catch (final IOException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Failed to extract rules response zip from source %s (%s).", key, exception.getMessage());
+            removeRulesCacheFiles(CampaignConstants.RULES_STAGING_CACHE_FOLDER, Collections.<String>emptyList());
+            return new RulesLoadResult(null, RulesLoadResult.Reason.ZIP_EXTRACTION_FAILED);
         }
 
-        // Copy the content of zipContentStream into the previously created temporary folder
-        if (!FileUtils.readInputStreamIntoFile(getZipFileHandle(key), zipContentStream, false)) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Couldn't extract zip contents to temp directory.");
-            return new RulesLoadResult(null, RulesLoadResult.Reason.CANNOT_STORE_IN_TEMP_DIR);
+        if (rulesJsonBytes == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Rules response zip from source %s did not contain %s.", key, CampaignConstants.RULES_JSON_FILE_NAME);
+            removeRulesCacheFiles(CampaignConstants.RULES_STAGING_CACHE_FOLDER, Collections.<String>emptyList());
+            return new RulesLoadResult(null, RulesLoadResult.Reason.NO_DATA);
         }
 
-        // Extract the rules zip
-        if (!FileUtils.extractFromZip(getZipFileHandle(key), tempDirectory.getPath())) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Failed to extract rules response zip into temp dir.");
-            return new RulesLoadResult(null, RulesLoadResult.Reason.ZIP_EXTRACTION_FAILED);
+        promoteStagedRules(stagedFileNames, rulesJsonBytes, metadata);
+        return new RulesLoadResult(new String(rulesJsonBytes, StandardCharsets.UTF_8), RulesLoadResult.Reason.SUCCESS);
+    }
+
+    /**
+     * Replaces the files cached from the previous rules zip with the entries of a fully extracted rules zip.
+     * <p>
+     * The staged entries are copied to the {@value CampaignConstants#RULES_CACHE_FOLDER} cache, then the files of the previous
+     * rules zip which are not part of the new one are removed. The {@value CampaignConstants#ZIP_HANDLE} entry is written last,
+     * so if the copy is interrupted its validators no longer match the cached {@value CampaignConstants#RULES_JSON_FILE_NAME}
+     * and the partially copied rules are not loaded by {@link #registerCachedRules()}.
+     *
+     * @param stagedFileNames {@code List<String>} containing the names of the entries cached in the staging cache
+     * @param rulesJsonBytes  {@code byte[]} containing the extracted {@value CampaignConstants#RULES_JSON_FILE_NAME}
+     * @param metadata        {@code Map<String, String>} containing the rules download response metadata
+     */
+    private void promoteStagedRules(final List<String> stagedFileNames, final byte[] rulesJsonBytes, final Map<String, String> metadata) {
+        final String rulesCacheName = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER;
+        final String stagingCacheName = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_STAGING_CACHE_FOLDER;
+        final List<String> rulesFileNames = new ArrayList<>();
+        for (final String fileName : stagedFileNames) {
+            final CacheResult stagedFile = cacheService.get(stagingCacheName, fileName);
+            if (stagedFile == null || stagedFile.getData() == null) {
+                Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "promoteStagedRules - Staged rules file (%s) not found.", fileName);
+                continue;
+            }
+
+            try (final InputStream stagedFileData = stagedFile.getData()) {
+                if (cacheService.set(rulesCacheName, fileName, new CacheEntry(stagedFileData, CacheExpiry.never(), metadata))) {
+                    rulesFileNames.add(fileName);
+                }
+            } catch (final IOException exception) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "promoteStagedRules - Failed to close staged rules file (%s).", fileName);
+            }
         }
+        cacheService.set(rulesCacheName, CampaignConstants.RULES_JSON_FILE_NAME, new CacheEntry(new ByteArrayInputStream(rulesJsonBytes), CacheExpiry.never(), metadata));
+        rulesFileNames.add(CampaignConstants.RULES_JSON_FILE_NAME);
+        rulesFileNames.add(CampaignConstants.ZIP_HANDLE);
 
-        // Cache the extracted contents
-        final boolean cached = cacheExtractedFiles(tempDirectory, metadata);
-        if (!cached) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG, "Could not cache rules from source %s", key);
+        // remove the files of the previous rules zip which are not part of the new one
+        removeRulesCacheFiles(CampaignConstants.RULES_CACHE_FOLDER, rulesFileNames);
+        removeRulesCacheFiles(CampaignConstants.RULES_STAGING_CACHE_FOLDER, Collections.<String>emptyList());
+
+        // keep the response metadata for conditional rules download requests
+        cacheService.set(rulesCacheName, CampaignConstants.ZIP_HANDLE, new CacheEntry(new ByteArrayInputStream(new byte[0]), CacheExpiry.never(), metadata));
+    }
+
+    /**
+     * Removes the files cached in the provided rules cache folder, except the ones cached for {@code fileNamesToRetain}.
+     *
+     * @param cacheFolder       {@link String} containing the name of the rules cache folder
+     * @param fileNamesToRetain {@code List<String>} containing the names of the cached files to retain
+     */
+    private void removeRulesCacheFiles(final String cacheFolder, final List<String> fileNamesToRetain) {
+        final DeviceInforming deviceInfoService = ServiceProvider.getInstance().getDeviceInfoService();
+        if (deviceInfoService == null || deviceInfoService.getApplicationCacheDir() == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "removeRulesCacheFiles - Cannot remove cached rules files, the application cache directory is unavailable.");
+            return;
         }
 
-        // Delete the temporary directory created for processing
-        deleteTemporaryDirectory(key);
+        final File rulesCacheDir = new File(new File(deviceInfoService.getApplicationCacheDir(), CampaignConstants.AEPSDK_CACHE_BASE_DIR),
+                CampaignConstants.CACHE_BASE_DIR + File.separator + cacheFolder);
+        final Utils.ReclaimedSpace reclaimedSpace = new Utils.ReclaimedSpace();
+        Utils.removeCachedFilesNotInList(rulesCacheDir, fileNamesToRetain, reclaimedSpace);
+        Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                "removeRulesCacheFiles - Removed %d cached rules file(s) from %s.", reclaimedSpace.files, cacheFolder);
+    }
 
-        final CacheResult cachedRulesJson = cacheService.get(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, CampaignConstants.RULES_JSON_FILE_NAME);
-        final String rulesJsonString = StreamUtils.readAsString(cachedRulesJson.getData());
-        return new RulesLoadResult(rulesJsonString, RulesLoadResult.Reason.SUCCESS);
+    /**
+     * Reads the current entry of the provided {@code ZipInputStream} into a byte array.
+     *
+     * @param zipInputStream {@link ZipInputStream} positioned at the entry to be read
+     * @return the entry contents as a {@code byte[]}
+     * @throws IOException if the entry cannot be read
+     */
+    private byte[] readZipEntry(final ZipInputStream zipInputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int bytesRead;
+        while ((bytesRead = zipInputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, bytesRead);
+        }
+        return outputStream.toByteArray();
     }
 
     private List<String> createAssetUrlList(final Map<String, Object> detailMap) {
@@ -278,40 +668,6 @@ class CampaignRulesDownloader {
         return assetsToDownload;
     }
 
-    private File getTemporaryDirectory(final String tag) {
-        final String hash = StringEncoder.sha2hash(tag);
-        final String tempDir = ServiceProvider.getInstance().getDeviceInfoService().getApplicationCacheDir().getPath()
-                + File.separator + TEMP_RULES_DIR
-                + File.separator + hash;
-        return new File(tempDir);
-    }
-
-    private File getZipFileHandle(final String tag) {
-        return new File(getTemporaryDirectory(tag).getPath() + File.separator + CampaignConstants.ZIP_HANDLE);
-    }
-
-    private void deleteTemporaryDirectory(final String tag) {
-        if (StringUtils.isNullOrEmpty(tag)) return;
-        FileUtils.deleteFile(getTemporaryDirectory(tag), true);
-    }
-
-    private boolean cacheExtractedFiles(final File tempDirectory, final Map<String, String> metadata) {
-        for (final File fileEntry : tempDirectory.listFiles()) {
-            if (fileEntry.isDirectory()) {
-                cacheExtractedFiles(fileEntry, metadata);
-            } else {
-                try {
-                    final String fileName = fileEntry.getName();
-                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG, "Caching file (%s)", fileName);
-                    cacheService.set(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER, fileName, new CacheEntry(new FileInputStream(fileEntry), CacheExpiry.never(), metadata));
-                } catch (final FileNotFoundException exception) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
     /**
      * Updates {@value CampaignConstants#CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY} in {@code CampaignExtension}'s {@link NamedCollection}.
      * <p>
@@ -337,4 +693,21 @@ class CampaignRulesDownloader {
             campaignNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, url);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code InputStream} over the current entry of a {@link ZipInputStream}.
+     * <p>
+     * Closing this stream does not close the underlying {@code ZipInputStream}, so that the remaining entries can still be read
+     * after the current entry has been handed over to the {@link CacheService}.
+     */
+    private static class ZipEntryInputStream extends FilterInputStream {
+        ZipEntryInputStream(final ZipInputStream zipInputStream) {
+            super(zipInputStream);
+        }
+
+        @Override
+        public void close() {
+            // the underlying zip stream is closed once all entries have been read
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records which {@code Event}s can possibly match any of the loaded Campaign rules.
+ * <p>
+ * The index is built from the rules JSON whenever rules are registered with the Campaign {@code LaunchRulesEngine}.
+ * For every rule, the matchers at the top level of its condition are inspected:
+ * <ul>
+ *     <li>{@value #TYPE_KEY} and {@value #SOURCE_KEY} {@code eq} matchers restrict the event type/source pairs the rule can match.</li>
+ *     <li>Any other event data key matcher (except {@value #MATCHER_NOT_EXISTS}) requires that key to be present in the event data.</li>
+ * </ul>
+ * Rules with none of the above constraints can match any event, in which case the index lets every event through.
+ * The index only ever answers "cannot match" for events that no loaded rule could match, so it is safe to skip rules evaluation
+ * for those events.
+ */
+class CampaignRulesEventIndex {
+    private static final String SELF_TAG = "CampaignRulesEventIndex";
+    private static final String TYPE_KEY = "~type";
+    private static final String SOURCE_KEY = "~source";
+    private static final String TOKEN_PREFIX = "~";
+    private static final String ANY = "*";
+    private static final String PAIR_SEPARATOR = "|";
+    private static final String KEY_DELIMITER = ".";
+    private static final String MATCHER_EQUALS = "eq";
+    private static final String MATCHER_NOT_EXISTS = "nx";
+    private static final String CONDITION_TYPE_GROUP = "group";
+    private static final String CONDITION_TYPE_MATCHER = "matcher";
+    private static final String LOGIC_AND = "and";
+    private static final String JSON_RULES_KEY = "rules";
+    private static final String JSON_CONDITION_KEY = "condition";
+    private static final String JSON_TYPE_KEY = "type";
+    private static final String JSON_DEFINITION_KEY = "definition";
+    private static final String JSON_LOGIC_KEY = "logic";
+    private static final String JSON_CONDITIONS_KEY = "conditions";
+    private static final String JSON_KEY_KEY = "key";
+    private static final String JSON_MATCHER_KEY = "matcher";
+    private static final String JSON_VALUES_KEY = "values";
+
+    private volatile Snapshot snapshot = Snapshot.MATCH_ALL;
+
+    /**
+     * Rebuilds this index from the provided Campaign rules JSON.
+     * <p>
+     * If the rules JSON cannot be parsed, the index falls back to letting every event through.
+     *
+     * @param rulesJson {@link String} containing the Campaign rules JSON registered with the rules engine
+     */
+    void update(final String rulesJson) {
+        if (StringUtils.isNullOrEmpty(rulesJson)) {
+            clear();
+            return;
+        }
+
+        try {
+            final JSONArray rules = new JSONObject(rulesJson).optJSONArray(JSON_RULES_KEY);
+            if (rules == null || rules.length() == 0) {
+                clear();
+                return;
+            }
+
+            final Set<String> typeSourcePairs = new HashSet<>();
+            final Set<String> eventDataKeys = new HashSet<>();
+            for (int i = 0; i < rules.length(); i++) {
+                final JSONObject rule = rules.optJSONObject(i);
+                if (rule == null) {
+                    continue;
+                }
+
+                if (!indexRule(rule.optJSONObject(JSON_CONDITION_KEY), typeSourcePairs, eventDataKeys)) {
+                    Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                            "update - Rule at index %d can match any event, all events will be evaluated.", i);
+                    snapshot = Snapshot.MATCH_ALL;
+                    return;
+                }
+            }
+
+            snapshot = new Snapshot(false, typeSourcePairs, eventDataKeys);
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "update - Indexed %d event type/source pair(s) and %d event data key(s).", typeSourcePairs.size(), eventDataKeys.size());
+        } catch (final JSONException exception) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "update - Unable to index Campaign rules, all events will be evaluated: %s", exception.getMessage());
+            snapshot = Snapshot.MATCH_ALL;
+        }
+    }
+
+    /**
+     * Clears this index after all rules have been unregistered from the rules engine.
+     * <p>
+     * No event can match once the index is cleared.
+     */
+    void clear() {
+        snapshot = Snapshot.MATCH_NONE;
+    }
+
+    /**
+     * Determines whether the provided {@code Event} can match any of the indexed rules.
+     *
+     * @param event {@link Event} to check
+     * @return {@code boolean} false if no indexed rule can match the {@code event}, true otherwise
+     */
+    boolean canMatch(final Event event) {
+        final Snapshot current = snapshot;
+        if (current.matchAll) {
+            return true;
+        }
+
+        if (event == null) {
+            return false;
+        }
+
+        final String type = normalize(event.getType());
+        final String source = normalize(event.getSource());
+        if (current.typeSourcePairs.contains(pair(type, source))
+                || current.typeSourcePairs.contains(pair(type, ANY))
+                || current.typeSourcePairs.contains(pair(ANY, source))) {
+            return true;
+        }
+
+        if (current.eventDataKeys.isEmpty()) {
+            return false;
+        }
+
+        final Map<String, Object> eventData = event.getEventData();
+        if (eventData == null || eventData.isEmpty()) {
+            return false;
+        }
+
+        for (final String key : eventData.keySet()) {
+            if (key != null && current.eventDataKeys.contains(normalize(key))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Indexes a single rule condition.
+     * <p>
+     * Only the matchers found at the top level of an {@value #LOGIC_AND} group (or a single top level matcher) are considered, as each of them
+     * has to be satisfied for the rule to match.
+     *
+     * @param condition       {@link JSONObject} containing the rule condition
+     * @param typeSourcePairs {@code Set<String>} of event type/source pairs to add to
+     * @param eventDataKeys   {@code Set<String>} of event data keys to add to
+     * @return {@code boolean} false if the rule can match any event, true otherwise
+     */
+    private boolean indexRule(final JSONObject condition, final Set<String> typeSourcePairs, final Set<String> eventDataKeys) {
+        if (condition == null) {
+            return false;
+        }
+
+        final JSONObject definition = condition.optJSONObject(JSON_DEFINITION_KEY);
+        if (definition == null) {
+            return false;
+        }
+
+        final JSONArray matchers;
+        final String conditionType = condition.optString(JSON_TYPE_KEY, "");
+        if (CONDITION_TYPE_MATCHER.equals(conditionType)) {
+            matchers = new JSONArray().put(condition);
+        } else if (CONDITION_TYPE_GROUP.equals(conditionType)
+                && LOGIC_AND.equalsIgnoreCase(definition.optString(JSON_LOGIC_KEY, ""))) {
+            matchers = definition.optJSONArray(JSON_CONDITIONS_KEY);
+        } else {
+            return false;
+        }
+
+        if (matchers == null) {
+            return false;
+        }
+
+        Set<String> types = null;
+        Set<String> sources = null;
+        String requiredKey = null;
+        for (int i = 0; i < matchers.length(); i++) {
+            final JSONObject matcher = matchers.optJSONObject(i);
+            if (matcher == null || !CONDITION_TYPE_MATCHER.equals(matcher.optString(JSON_TYPE_KEY, ""))) {
+                continue;
+            }
+
+            final JSONObject matcherDefinition = matcher.optJSONObject(JSON_DEFINITION_KEY);
+            if (matcherDefinition == null) {
+                continue;
+            }
+
+            final String key = matcherDefinition.optString(JSON_KEY_KEY, "");
+            final String matcherType = matcherDefinition.optString(JSON_MATCHER_KEY, "");
+            if (StringUtils.isNullOrEmpty(key) || MATCHER_NOT_EXISTS.equals(matcherType)) {
+                continue;
+            }
+
+            if (TYPE_KEY.equals(key) || SOURCE_KEY.equals(key)) {
+                final Set<String> values = readEqualsValues(matcherType, matcherDefinition.optJSONArray(JSON_VALUES_KEY));
+                if (values == null) {
+                    continue;
+                }
+                if (TYPE_KEY.equals(key)) {
+                    types = values;
+                } else {
+                    sources = values;
+                }
+            } else if (requiredKey == null && !key.startsWith(TOKEN_PREFIX)) {
+                requiredKey = key;
+            }
+        }
+
+        if (types != null || sources != null) {
+            for (final String type : types != null ? types : Collections.singleton(ANY)) {
+                for (final String source : sources != null ? sources : Collections.singleton(ANY)) {
+                    typeSourcePairs.add(pair(type, source));
+                }
+            }
+            return true;
+        }
+
+        if (requiredKey != null) {
+            // flattened keys (e.g. "a.b.c") are matched against the top level event data key they were flattened from
+            String key = normalize(requiredKey);
+            eventDataKeys.add(key);
+            int delimiterIndex;
+            while ((delimiterIndex = key.lastIndexOf(KEY_DELIMITER)) > 0) {
+                key = key.substring(0, delimiterIndex);
+                eventDataKeys.add(key);
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the values of an {@value #MATCHER_EQUALS} matcher.
+     *
+     * @param matcherType {@link String} containing the matcher type
+     * @param values      {@link JSONArray} containing the matcher values
+     * @return {@code Set<String>} of normalized values, or null if the matcher cannot be indexed
+     */
+    private Set<String> readEqualsValues(final String matcherType, final JSONArray values) {
+        if (!MATCHER_EQUALS.equals(matcherType) || values == null || values.length() == 0) {
+            return null;
+        }
+
+        final Set<String> result = new HashSet<>();
+        for (int i = 0; i < values.length(); i++) {
+            final Object value = values.opt(i);
+            if (!(value instanceof String)) {
+                return null;
+            }
+            result.add(normalize((String) value));
+        }
+        return result;
+    }
+
+    private static String pair(final String type, final String source) {
+        return type + PAIR_SEPARATOR + source;
+    }
+
+    private static String normalize(final String value) {
+        // rule conditions are evaluated case insensitively
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable state of a {@code CampaignRulesEventIndex}.
+     */
+    private static final class Snapshot {
+        static final Snapshot MATCH_ALL = new Snapshot(true, Collections.<String>emptySet(), Collections.<String>emptySet());
+        static final Snapshot MATCH_NONE = new Snapshot(false, Collections.<String>emptySet(), Collections.<String>emptySet());
+
+        final boolean matchAll;
+        final Set<String> typeSourcePairs;
+        final Set<String> eventDataKeys;
+
+        Snapshot(final boolean matchAll, final Set<String> typeSourcePairs, final Set<String> eventDataKeys) {
+            this.matchAll = matchAll;
+            this.typeSourcePairs = typeSourcePairs;
+            this.eventDataKeys = eventDataKeys;
+        }
+    }
+}
@@ -19,33 +19,46 @@ import com.adobe.marketing.mobile.util.StringUtils;
 
 import java.util.Map;
 
-final class CampaignState {
-    private final String SELF_TAG = "CampaignState";
-    // ----------- Configuration properties -----------
-    private String campaignServer;
-    private String campaignPkey;
-    private String campaignMcias;
-    private MobilePrivacyStatus privacyStatus;
-    private String propertyId;
-    private int timeout;
-    private int campaignRegistrationDelayDays;
-    private boolean campaignRegistrationPaused = false;
-
+/**
+ * Holds the {@code Configuration} and {@code Identity} properties used by the Campaign extension.
+ * <p>
+ * The properties are kept in an immutable {@link Snapshot} which is replaced atomically whenever they change, so readers on any
+ * thread get a consistent view without locking. Each replacement increments the snapshot version.
+ */
 
-    // ----------- Identity properties -----------
-    private String experienceCloudId;
+final class CampaignState {
+    private static final String SELF_TAG = "CampaignState";
+    private volatile Snapshot snapshot = new Snapshot();
 
     // ========================================================================
     // package-private methods
     // ========================================================================
 
+    /**
+     * Get the current {@code Snapshot} of this {@code CampaignState}.
+     *
+     * @return the current immutable {@link Snapshot}
+     */
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the version of the current {@code Snapshot}.
+     *
+     * @return {@code long} containing the current snapshot version
+     */
+    long getVersion() {
+        return snapshot.version;
+    }
+
     /**
      * Get this Campaign server.
      *
      * @return {@link String} containing the configured Campaign server
      */
     String getCampaignServer() {
-        return this.campaignServer;
+        return snapshot.campaignServer;
     }
 
     /**
@@ -54,7 +67,7 @@ final class CampaignState {
      * @return {@link String} containing the configured Campaign pkey
      */
     String getCampaignPkey() {
-        return this.campaignPkey;
+        return snapshot.campaignPkey;
     }
 
     /**
@@ -63,7 +76,7 @@ final class CampaignState {
      * @return {@link String} containing the configured Campaign mcias endpoint.
      */
     String getCampaignMcias() {
-        return this.campaignMcias;
+        return snapshot.campaignMcias;
     }
 
     /**
@@ -72,7 +85,7 @@ final class CampaignState {
      * @return {@link String} containing the configured Campaign timeout.
      */
     int getCampaignTimeout() {
-        return this.timeout;
+        return snapshot.timeout;
     }
 
     /**
@@ -81,7 +94,7 @@ final class CampaignState {
      * @return {@link MobilePrivacyStatus} enum representing the configured mobile privacy status.
      */
     MobilePrivacyStatus getMobilePrivacyStatus() {
-        return this.privacyStatus;
+        return snapshot.privacyStatus;
     }
 
     /**
@@ -90,7 +103,7 @@ final class CampaignState {
      * @return {@link String} containing the configured property Id.
      */
     String getPropertyId() {
-        return this.propertyId;
+        return snapshot.propertyId;
     }
 
     /**
@@ -99,7 +112,7 @@ final class CampaignState {
      * @return {@link int} containing the configured Campaign registration delay.
      */
     int getCampaignRegistrationDelay() {
-        return this.campaignRegistrationDelayDays;
+        return snapshot.campaignRegistrationDelayDays;
     }
 
     /**
@@ -108,7 +121,16 @@ final class CampaignState {
      * @return {@link boolean} containing the Campaign registration paused status.
      */
     boolean getCampaignRegistrationPaused() {
-        return this.campaignRegistrationPaused;
+        return snapshot.campaignRegistrationPaused;
+    }
+
+    /**
+     * Get the Campaign keep-alive status.
+     *
+     * @return {@link boolean} indicating whether connections to the Campaign server should be kept alive and reused.
+     */
+    boolean getCampaignKeepAlive() {
+        return snapshot.campaignKeepAlive;
     }
 
     /**
@@ -117,26 +139,33 @@ final class CampaignState {
      * @return {@link String} containing the configured Experience Cloud Id.
      */
     String getExperienceCloudId() {
-        return this.experienceCloudId;
+        return snapshot.experienceCloudId;
     }
 
     /**
      * Sets this {@code CampaignState} with properties from provided {@code configData} and {@code identityData}.
      * <p>
-     * Invokes internal methods to set the properties for {@code Configuration} and {@code Identity} shared states.
+     * A new {@link Snapshot} with an incremented version replaces the current one only if any of the properties changed.
      *
      * @param configSharedStateResult   {@link SharedStateResult} representing {@code Configuration} shared state
      * @param identitySharedStateResult {@code SharedStateResult} representing {@code Identity} shared state
-     * @see #setConfiguration(Map<String, Object>)
-     * @see #setIdentity(Map<String, Object>)
      */
-    void setState(final SharedStateResult configSharedStateResult, final SharedStateResult identitySharedStateResult) {
-        if (configSharedStateResult != null && configSharedStateResult.getValue() != null) {
-            setConfiguration(configSharedStateResult.getValue());
+    synchronized void setState(final SharedStateResult configSharedStateResult, final SharedStateResult identitySharedStateResult) {
+        final Map<String, Object> configState = configSharedStateResult != null ? configSharedStateResult.getValue() : null;
+        final Map<String, Object> identityState = identitySharedStateResult != null ? identitySharedStateResult.getValue() : null;
+        if (configState == null && identityState == null) {
+            return;
+        }
+
+        final Snapshot current = snapshot;
+        final Snapshot updated = new Snapshot(current, configState, identityState);
+        if (updated.hasSameValues(current)) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "setState -  Campaign state is unchanged (version %d).", current.version);
+            return;
         }
-		if (identitySharedStateResult != null && identitySharedStateResult.getValue() != null) {
-			setIdentity(identitySharedStateResult.getValue());
-		}
+
+        snapshot = updated;
     }
 
     /**
@@ -145,14 +174,7 @@ final class CampaignState {
      * @return {@code boolean} indicating whether this contains valid {@code CampaignState} for rules download
      */
     boolean canDownloadRulesWithCurrentState() {
-        if (this.privacyStatus != MobilePrivacyStatus.OPT_IN) {
-            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "canDownloadRulesWithCurrentState -  Cannot download rules, since privacy status is not opted in.");
-            return false;
-        }
-
-        return !StringUtils.isNullOrEmpty(this.experienceCloudId) && !StringUtils.isNullOrEmpty(this.campaignServer) &&
-                !StringUtils.isNullOrEmpty(this.campaignMcias) && !StringUtils.isNullOrEmpty(this.propertyId);
+        return snapshot.canDownloadRules();
     }
 
     /**
@@ -161,14 +183,7 @@ final class CampaignState {
      * @return {@code boolean} indicating whether this contains valid {@code CampaignState} for registration
      */
     boolean canRegisterWithCurrentState() {
-        if (this.privacyStatus != MobilePrivacyStatus.OPT_IN) {
-            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "canRegisterWithCurrentState -  Cannot register with Campaign, since privacy status is not opted in.");
-            return false;
-        }
-
-        return !StringUtils.isNullOrEmpty(this.experienceCloudId) && !StringUtils.isNullOrEmpty(this.campaignServer) &&
-                !StringUtils.isNullOrEmpty(this.campaignPkey);
+        return snapshot.canRegister();
     }
 
     /**
@@ -177,42 +192,197 @@ final class CampaignState {
      * @return {@code boolean} indicating whether this contains valid {@code CampaignState} for message tracking
      */
     boolean canSendTrackInfoWithCurrentState() {
-        if (this.privacyStatus != MobilePrivacyStatus.OPT_IN) {
-            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "canSendTrackInfoWithCurrentState -  Cannot send message track request to Campaign, since privacy status is not opted in.");
-            return false;
-        }
-
-        return !StringUtils.isNullOrEmpty(this.experienceCloudId) && !StringUtils.isNullOrEmpty(this.campaignServer);
+        return snapshot.canSendTrackInfo();
     }
 
-    // ========================================================================
-    // private methods
-    // ========================================================================
-
     /**
-     * Extracts properties from the provided {@code Map<String, Object>} configState and updates this {@code CampaignState}.
-     *
-     * @param configState {@link Map<String, Object>} representing {@code Configuration} shared state
+     * Immutable view of the {@code Configuration} and {@code Identity} properties at a given version.
      */
-    private void setConfiguration(final Map<String, Object> configState) {
-        this.campaignServer = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_SERVER_KEY, "");
-        this.campaignPkey = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_PKEY_KEY, "");
-        this.campaignMcias = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_MCIAS_KEY, "");
-        this.propertyId = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.PROPERTY_ID, "");
-        this.privacyStatus = MobilePrivacyStatus.fromString(DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.GLOBAL_CONFIG_PRIVACY, ""));
-        this.timeout = DataReader.optInt(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_TIMEOUT, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT);
-        this.campaignRegistrationDelayDays = DataReader.optInt(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_DELAY_KEY, CampaignConstants.DEFAULT_REGISTRATION_DELAY_DAYS);
-        this.campaignRegistrationPaused = DataReader.optBoolean(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_PAUSED_KEY, false);
-    }
+    static final class Snapshot {
+        private final long version;
+        // ----------- Configuration properties -----------
+        private final String campaignServer;
+        private final String campaignPkey;
+        private final String campaignMcias;
+        private final MobilePrivacyStatus privacyStatus;
+        private final String propertyId;
+        private final int timeout;
+        private final int campaignRegistrationDelayDays;
+        private final boolean campaignRegistrationPaused;
+        private final boolean campaignKeepAlive;
 
-    /**
-     * Extracts properties from the provided {@code Map<String, Object>} identityState and updates this {@code CampaignState}.
-     *
-     * @param identityState {@link Map<String, Object>} representing {@code Identity} shared state
-     */
-    private void setIdentity(final Map<String, Object> identityState) {
-		this.experienceCloudId = DataReader.optString(identityState, CampaignConstants.EventDataKeys.Identity.VISITOR_ID_MID, "");
-    }
+        // ----------- Identity properties -----------
+        private final String experienceCloudId;
 
-}
\ No newline at end of file
+        /**
+         * Creates the initial, empty {@code Snapshot}.
+         */
+        private Snapshot() {
+            version = 0;
+            campaignServer = null;
+            campaignPkey = null;
+            campaignMcias = null;
+            privacyStatus = null;
+            propertyId = null;
+            timeout = 0;
+            campaignRegistrationDelayDays = 0;
+            campaignRegistrationPaused = false;
+            campaignKeepAlive = false;
+            experienceCloudId = null;
+        }
+
+        /**
+         * Creates the {@code Snapshot} following {@code previous}.
+         * <p>
+         * The {@code Configuration} and {@code Identity} properties are extracted from {@code configState} and {@code identityState}
+         * respectively, or are carried over from {@code previous} if the corresponding state is null.
+         *
+         * @param previous      the {@link Snapshot} being replaced
+         * @param configState   {@link Map<String, Object>} representing {@code Configuration} shared state, may be null
+         * @param identityState {@code Map<String, Object>} representing {@code Identity} shared state, may be null
+         */
+        private Snapshot(final Snapshot previous, final Map<String, Object> configState, final Map<String, Object> identityState) {
+            version = previous.version + 1;
+
+            if (configState != null) {
+                campaignServer = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_SERVER_KEY, "");
+                campaignPkey = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_PKEY_KEY, "");
+                campaignMcias = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_MCIAS_KEY, "");
+                propertyId = DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.PROPERTY_ID, "");
+                privacyStatus = MobilePrivacyStatus.fromString(DataReader.optString(configState, CampaignConstants.EventDataKeys.Configuration.GLOBAL_CONFIG_PRIVACY, ""));
+                timeout = DataReader.optInt(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_TIMEOUT, CampaignConstants.CAMPAIGN_TIMEOUT_DEFAULT);
+                campaignRegistrationDelayDays = DataReader.optInt(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_DELAY_KEY, CampaignConstants.DEFAULT_REGISTRATION_DELAY_DAYS);
+                campaignRegistrationPaused = DataReader.optBoolean(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_PAUSED_KEY, false);
+                campaignKeepAlive = DataReader.optBoolean(configState, CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_KEEP_ALIVE_KEY, false);
+            } else {
+                campaignServer = previous.campaignServer;
+                campaignPkey = previous.campaignPkey;
+                campaignMcias = previous.campaignMcias;
+                propertyId = previous.propertyId;
+                privacyStatus = previous.privacyStatus;
+                timeout = previous.timeout;
+                campaignRegistrationDelayDays = previous.campaignRegistrationDelayDays;
+                campaignRegistrationPaused = previous.campaignRegistrationPaused;
+                campaignKeepAlive = previous.campaignKeepAlive;
+            }
+
+            experienceCloudId = identityState != null
+                    ? DataReader.optString(identityState, CampaignConstants.EventDataKeys.Identity.VISITOR_ID_MID, "")
+                    : previous.experienceCloudId;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        String getCampaignServer() {
+            return campaignServer;
+        }
+
+        String getCampaignPkey() {
+            return campaignPkey;
+        }
+
+        String getCampaignMcias() {
+            return campaignMcias;
+        }
+
+        int getCampaignTimeout() {
+            return timeout;
+        }
+
+        MobilePrivacyStatus getMobilePrivacyStatus() {
+            return privacyStatus;
+        }
+
+        String getPropertyId() {
+            return propertyId;
+        }
+
+        int getCampaignRegistrationDelay() {
+            return campaignRegistrationDelayDays;
+        }
+
+        boolean getCampaignRegistrationPaused() {
+            return campaignRegistrationPaused;
+        }
+
+        boolean getCampaignKeepAlive() {
+            return campaignKeepAlive;
+        }
+
+        String getExperienceCloudId() {
+            return experienceCloudId;
+        }
+
+        /**
+         * Determines if this {@code Snapshot} is valid for downloading rules from Campaign.
+         *
+         * @return {@code boolean} indicating whether this {@code Snapshot} is valid for rules download
+         */
+        boolean canDownloadRules() {
+            if (privacyStatus != MobilePrivacyStatus.OPT_IN) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "canDownloadRulesWithCurrentState -  Cannot download rules, since privacy status is not opted in.");
+                return false;
+            }
+
+            return !StringUtils.isNullOrEmpty(experienceCloudId) && !StringUtils.isNullOrEmpty(campaignServer) &&
+                    !StringUtils.isNullOrEmpty(campaignMcias) && !StringUtils.isNullOrEmpty(propertyId);
+        }
+
+        /**
+         * Determines if this {@code Snapshot} is valid for sending registration request to Campaign.
+         *
+         * @return {@code boolean} indicating whether this {@code Snapshot} is valid for registration
+         */
+        boolean canRegister() {
+            if (privacyStatus != MobilePrivacyStatus.OPT_IN) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "canRegisterWithCurrentState -  Cannot register with Campaign, since privacy status is not opted in.");
+                return false;
+            }
+
+            return !StringUtils.isNullOrEmpty(experienceCloudId) && !StringUtils.isNullOrEmpty(campaignServer) &&
+                    !StringUtils.isNullOrEmpty(campaignPkey);
+        }
+
+        /**
+         * Determines if this {@code Snapshot} is valid for sending message track request to Campaign.
+         *
+         * @return {@code boolean} indicating whether this {@code Snapshot} is valid for message tracking
+         */
+        boolean canSendTrackInfo() {
+            if (privacyStatus != MobilePrivacyStatus.OPT_IN) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "canSendTrackInfoWithCurrentState -  Cannot send message track request to Campaign, since privacy status is not opted in.");
+                return false;
+            }
+
+            return !StringUtils.isNullOrEmpty(experienceCloudId) && !StringUtils.isNullOrEmpty(campaignServer);
+        }
+
+        /**
+         * Determines if this {@code Snapshot} holds the same properties as {@code other}, regardless of their versions.
+         *
+         * @param other the {@link Snapshot} to compare to
+         * @return {@code boolean} indicating whether both snapshots hold the same properties
+         */
+        private boolean hasSameValues(final Snapshot other) {
+            return timeout == other.timeout
+                    && campaignRegistrationDelayDays == other.campaignRegistrationDelayDays
+                    && campaignRegistrationPaused == other.campaignRegistrationPaused
+                    && campaignKeepAlive == other.campaignKeepAlive
+                    && privacyStatus == other.privacyStatus
+                    && isEqual(campaignServer, other.campaignServer)
+                    && isEqual(campaignPkey, other.campaignPkey)
+                    && isEqual(campaignMcias, other.campaignMcias)
+                    && isEqual(propertyId, other.propertyId)
+                    && isEqual(experienceCloudId, other.experienceCloudId);
+        }
+
+        private static boolean isEqual(final String first, final String second) {
+            return first == null ? second == null : first.equals(second);
+        }
+    }
+}
@@ -14,7 +14,6 @@ package com.adobe.marketing.mobile.campaign
 import com.adobe.marketing.mobile.campaign.CampaignConstants.LOG_TAG
 import com.adobe.marketing.mobile.services.Log
 import java.io.*
-import java.util.zip.ZipInputStream
 
 internal object FileUtils {
     const val TAG = "FileUtils"
@@ -47,87 +46,6 @@ internal object FileUtils {
         }
     }
 
-    /**
-     * Extracts the zip file to an output directory.
-     *
-     * @param zipFile the zip file that needs to be extracted
-     * @param outputDirectoryPath the destination for the extracted [zipFile] contents
-     * @return true if the zip file has been successfully extracted
-     *         false otherwise
-     */
-    @JvmStatic
-    fun extractFromZip(zipFile: File?, outputDirectoryPath: String): Boolean {
-        if (zipFile == null) return false
-
-        val folder = File(outputDirectoryPath)
-        if (!folder.exists() && !folder.mkdir()) {
-            Log.debug(
-                LOG_TAG,
-                TAG,
-                "Could not create the output directory $outputDirectoryPath"
-            )
-            return false
-        }
-
-        var extractedSuccessfully = true
-        try {
-            ZipInputStream(FileInputStream(zipFile)).use { zipInputStream ->
-                // get the zipped file list entry
-                var ze = zipInputStream.nextEntry
-                val outputFolderCanonicalPath = folder.canonicalPath
-                if (ze == null) {
-                    // Invalid zip file!
-                    Log.debug(
-                        LOG_TAG, TAG, "Zip file was invalid"
-                    )
-                    return false
-                }
-                var entryProcessedSuccessfully = true
-                while (ze != null && entryProcessedSuccessfully) {
-                    val fileName = ze.name
-                    val newZipEntryFile = File(outputDirectoryPath + File.separator + fileName)
-                    if (!newZipEntryFile.canonicalPath.startsWith(outputFolderCanonicalPath)) {
-                        Log.debug(
-                            LOG_TAG,
-                            TAG,
-                            "The zip file contained an invalid path. Verify that your zip file is formatted correctly and has not been tampered with."
-                        )
-                        return false
-                    }
-                    entryProcessedSuccessfully = if (ze.isDirectory) {
-                        // handle directory
-                        (newZipEntryFile.exists() || newZipEntryFile.mkdirs())
-                    } else {
-                        // handle file
-                        val parentFolder = newZipEntryFile.parentFile
-                        if (parentFolder != null && (parentFolder.exists() || parentFolder.mkdirs())) {
-                            readInputStreamIntoFile(newZipEntryFile, zipInputStream, false)
-                        } else {
-                            Log.debug(
-                                LOG_TAG,
-                                TAG,
-                                "Could not extract the file ${newZipEntryFile.absolutePath}"
-                            )
-                            return false
-                        }
-                    }
-                    extractedSuccessfully = extractedSuccessfully && entryProcessedSuccessfully
-
-                    zipInputStream.closeEntry()
-                    ze = zipInputStream.nextEntry
-                }
-                zipInputStream.closeEntry()
-            }
-        } catch (ex: Exception) {
-            Log.debug(
-                LOG_TAG, TAG, "Extraction failed - $ex"
-            )
-            extractedSuccessfully = false
-        }
-
-        return extractedSuccessfully
-    }
-
     @JvmStatic
     @Throws(SecurityException::class)
     fun deleteFile(fileToDelete: File?, recursive: Boolean): Boolean {
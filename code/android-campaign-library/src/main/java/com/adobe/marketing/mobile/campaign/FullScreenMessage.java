@@ -27,7 +27,6 @@ import com.adobe.marketing.mobile.util.StreamUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.UrlUtils;
 
-import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -44,12 +43,11 @@ import java.util.Map;
 class FullScreenMessage extends CampaignMessage {
     private final String SELF_TAG = "FullScreenMessage";
     private final static int FILL_DEVICE_DISPLAY = 100;
-    private final String MESSAGES_CACHE = CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.MESSAGE_CACHE_DIR + File.separator;
     private final CacheService cacheService;
+    private final CampaignAssetCache assetCache;
     private final UIService uiService;
 
     private String html;
-    private String htmlContent;
     private String messageId;
     private final List<List<String>> assets = new ArrayList<>();
 
@@ -64,6 +62,7 @@ class FullScreenMessage extends CampaignMessage {
     FullScreenMessage(final CampaignExtension extension, final RuleConsequence consequence) throws CampaignMessageRequiredFieldMissingException {
         super(extension, consequence);
         cacheService = ServiceProvider.getInstance().getCacheService();
+        assetCache = new CampaignAssetCache(cacheService);
         uiService = ServiceProvider.getInstance().getUIService();
         parseFullScreenMessagePayload(consequence);
     }
@@ -141,10 +140,14 @@ class FullScreenMessage extends CampaignMessage {
      * Creates and shows a new {@link FullscreenMessage} object and registers a {@link FullScreenMessageUiListener}
      * instance with the {@code UIService} to receive message interaction events.
      * <p>
-     * This method reads the {@link #htmlContent} from the cached html at {@link #assets} and generates a map containing the asset url and
+     * This method reads the html content from the cached html at {@link #assets} and generates a map containing the asset url and
      * it's cached file location. The asset map is set in the created {@code FullscreenMessage} before invoking the method {@link FullscreenMessage#show()} to display
      * the fullscreen in-app message.
+     * <p>
+     * The html and asset map are kept in the parent extension's {@link CampaignMessageContentCache}, so showing the message again
+     * does not read them from disk. No state is kept on this instance, which is prepared once and shown on every trigger.
      *
+     * @see #getContent()
      * @see #createCachedResourcesMap()
      * @see UIService#createFullscreenMessage(String, FullscreenMessageDelegate, boolean, MessageSettings)
      */
@@ -158,27 +161,12 @@ class FullScreenMessage extends CampaignMessage {
             return;
         }
 
-        if (cacheService == null) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "showMessage - No cache service found, to show fullscreen message with ID %s", messageId);
-            return;
-        }
-
-        final CacheResult cacheResult = cacheService.get(CampaignConstants.CACHE_BASE_DIR, html);
-        if (cacheResult == null) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "showMessage - Unable to find cached html content for fullscreen message with ID %s", messageId);
-            return;
-        }
-        htmlContent = StreamUtils.readAsString(cacheResult.getData());
-
-        if (StringUtils.isNullOrEmpty(htmlContent)) {
-            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
-                    "showMessage -  No html content in file (%s). File is missing or invalid!", html);
+        final CampaignMessageContentCache.Content content = getContent();
+        if (content == null) {
             return;
         }
-
-        final Map<String, String> cachedResourcesMap = createCachedResourcesMap();
+        final String htmlContent = content.getHtml();
+        final Map<String, String> cachedResourcesMap = content.getLocalAssets();
 
         final FullScreenMessageUiListener fullScreenMessageUiListener = new FullScreenMessageUiListener();
         final MessageSettings messageSettings = new MessageSettings();
@@ -202,6 +190,67 @@ class FullScreenMessage extends CampaignMessage {
         }
     }
 
+    /**
+     * Reads the html and resolves the cached assets of this message into the parent extension's {@link CampaignMessageContentCache}
+     * ahead of {@link #showMessage()}, so that showing the message only needs to render it.
+     * <p>
+     * Invoked once the message assets are downloaded. Nothing is read if the content is already cached.
+     *
+     * @return {@code boolean} indicating whether the content of this message is available
+     * @see #getContent()
+     */
+    boolean prepareContent() {
+        return getContent() != null;
+    }
+
+    /**
+     * Retrieves the html and asset map of this message from the parent extension's {@link CampaignMessageContentCache}, reading
+     * them from the {@link CacheService} and caching them if they are not cached yet.
+     *
+     * @return the {@link CampaignMessageContentCache.Content} of this message, or null if the html content is unavailable
+     */
+    private CampaignMessageContentCache.Content getContent() {
+        final CampaignMessageContentCache contentCache = parentModule != null ? parentModule.getMessageContentCache() : null;
+        if (contentCache != null) {
+            final CampaignMessageContentCache.Content cachedContent = contentCache.get(messageId, html);
+            if (cachedContent != null) {
+                Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                        "getContent - Using in-memory content for fullscreen message with ID %s", messageId);
+                return cachedContent;
+            }
+        }
+
+        if (cacheService == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "getContent - No cache service found, to show fullscreen message with ID %s", messageId);
+            return null;
+        }
+
+        final CacheResult cacheResult = cacheService.get(CampaignConstants.CACHE_BASE_DIR, html);
+        if (cacheResult == null) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "getContent - Unable to find cached html content for fullscreen message with ID %s", messageId);
+            return null;
+        }
+        final String cachedHtml = StreamUtils.readAsString(cacheResult.getData());
+
+        if (StringUtils.isNullOrEmpty(cachedHtml)) {
+            Log.debug(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "getContent -  No html content in file (%s). File is missing or invalid!", html);
+            return null;
+        }
+
+        final List<String> assetUrls = new ArrayList<>();
+        for (final List<String> currentAssetArray : assets) {
+            assetUrls.addAll(currentAssetArray);
+        }
+
+        if (contentCache == null) {
+            return new CampaignMessageContentCache.Content(cachedHtml, assetUrls, createCachedResourcesMap());
+        }
+        return contentCache.put(messageId, html, cachedHtml, assetUrls, createCachedResourcesMap());
+    }
+
     /**
      * Determines whether this class has downloadable assets.
      *
@@ -216,6 +265,8 @@ class FullScreenMessage extends CampaignMessage {
      * Returns a {@code Map<String,String>} containing the remote resource URL as key and cached resource path as value for a cached remote resource.
      * <p>
      * This function uses the {@link CacheService} to find a cached remote file. if a cached file is found, its added to the {@code Map<String, String>} that will be returned.
+     * The cached file paths are read from the message manifest written once its assets were downloaded, the asset cache is only
+     * probed for each remote URL if the message assets have not been resolved yet.
      * </p>
      * This functions returns an empty map in the following cases:
      * <ul>
@@ -240,6 +291,11 @@ class FullScreenMessage extends CampaignMessage {
 
         final Map<String, String> cachedImagesMap = new HashMap<>();
         final Map<String, String> fallbackImagesMap = new HashMap<>();
+        final Map<String, String> resolvedAssets = assetCache.getResolvedAssets(messageId);
+        if (resolvedAssets == null) {
+            Log.trace(CampaignConstants.LOG_TAG, SELF_TAG,
+                    "createCachedResourcesMap - Assets of message id %s are not resolved yet, probing the asset cache.", messageId);
+        }
 
         for (final List<String> currentAssetArray : assets) {
             if (currentAssetArray.isEmpty()) {
@@ -254,11 +310,18 @@ class FullScreenMessage extends CampaignMessage {
             // loop through our assets to see if we have any of them in cache
             while (currentAssetNumber < currentAssetArrayCount) {
                 final String currentAsset = currentAssetArray.get(currentAssetNumber);
-                final CacheResult assetValueFile = cacheService.get(MESSAGES_CACHE + messageId, currentAsset);
-
-                if (assetValueFile != null) {
-                    assetValue = assetValueFile.getMetadata().get(CampaignConstants.METADATA_PATH);
-                    break;
+                if (resolvedAssets != null) {
+                    assetValue = resolvedAssets.get(currentAsset);
+                    if (assetValue != null) {
+                        break;
+                    }
+                } else {
+                    final CacheResult assetValueFile = assetCache.getAsset(currentAsset);
+
+                    if (assetValueFile != null) {
+                        assetValue = assetValueFile.getMetadata().get(CampaignConstants.METADATA_PATH);
+                        break;
+                    }
                 }
 
                 currentAssetNumber++;
@@ -23,27 +23,45 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 
 class Utils {
+    // cached file names start with the SHA-256 hex digest of the cache key
+    private static final int CACHE_KEY_HASH_LENGTH = 64;
+
     private Utils() {
     }
 
     /**
      * Creates a {@code CampaignHit} object from the given {@code DataEntity}.
+     * <p>
+     * Supports both the compact encoding created by {@link CampaignHit#encode()} and the JSON format of previously queued hits.
      *
      * @param dataEntity {@link DataEntity} containing a Campaign network request
      * @return {@link CampaignHit} created from the {@code DataEntity}
      */
     static CampaignHit campaignHitFromDataEntity(final DataEntity dataEntity) {
+        final String data = dataEntity.getData();
+        if (data != null && data.startsWith(CampaignConstants.CampaignHit.ENCODING_VERSION)) {
+            final CampaignHit campaignHit = CampaignHit.decode(data);
+            if (campaignHit == null) {
+                Log.warning(CampaignConstants.LOG_TAG, "campaignHitFromDataEntity",
+                        "Unable to decode the data entity to a campaign hit.");
+            }
+            return campaignHit;
+        }
+
         try {
             final JSONObject jsonData = new JSONObject(dataEntity.getData());
-            return new CampaignHit(jsonData.getString(CampaignConstants.CampaignHit.URL), jsonData.getString(CampaignConstants.CampaignHit.PAYLOAD), jsonData.getInt(CampaignConstants.CampaignHit.TIMEOUT));
+            return new CampaignHit(jsonData.getString(CampaignConstants.CampaignHit.URL), jsonData.getString(CampaignConstants.CampaignHit.PAYLOAD),
+                    jsonData.getInt(CampaignConstants.CampaignHit.TIMEOUT), jsonData.optBoolean(CampaignConstants.CampaignHit.KEEP_ALIVE, false));
         } catch (final JSONException jsonException) {
             Log.warning(CampaignConstants.LOG_TAG, "campaignHitFromDataEntity",
                     "JSON exception occurred converting data entity to campaign hit: %s", jsonException.getMessage());
@@ -52,22 +70,76 @@ class Utils {
     }
 
     /**
-     * Recursively checks and deletes files within the cached assets directory which aren't within the {@code assetsToRetain} list.
+     * Deletes the subdirectories of {@code cacheDir} whose names are not in {@code namesToRetain}.
      *
-     * @param cacheAsset     {@link File} containing the cached assets directory
-     * @param assetsToRetain {@code List<String>} containing assets which should be retained
+     * @param cacheDir       {@link File} containing the cache directory to clean up
+     * @param namesToRetain  {@code Set<String>} containing the names of the subdirectories to retain
+     * @param reclaimedSpace {@link ReclaimedSpace} to add the deleted files and bytes to
      */
-    static void clearCachedAssetsNotInList(final File cacheAsset, final List<String> assetsToRetain) {
-        if (cacheAsset.isDirectory()) {
-            for (final File child : cacheAsset.listFiles()) {
-                clearCachedAssetsNotInList(child, assetsToRetain);
+    static void removeDirectoriesNotInSet(final File cacheDir, final Set<String> namesToRetain, final ReclaimedSpace reclaimedSpace) {
+        final File[] children = cacheDir != null ? cacheDir.listFiles() : null;
+        if (children == null) {
+            return;
+        }
+
+        for (final File child : children) {
+            if (child.isDirectory() && !namesToRetain.contains(child.getName())) {
+                deleteRecursively(child, reclaimedSpace);
+            }
+        }
+    }
+
+    /**
+     * Deletes the files in {@code cacheDir} which were not cached for any of the {@code keysToRetain}.
+     * <p>
+     * Cached file names start with the SHA-256 hash of their cache key. The keys to retain are hashed once, so each cached
+     * file is checked with a single lookup.
+     *
+     * @param cacheDir       {@link File} containing the cache directory to clean up
+     * @param keysToRetain   {@code Collection<String>} containing the cache keys of the files to retain
+     * @param reclaimedSpace {@link ReclaimedSpace} to add the deleted files and bytes to
+     */
+    static void removeCachedFilesNotInList(final File cacheDir, final Collection<String> keysToRetain, final ReclaimedSpace reclaimedSpace) {
+        final File[] children = cacheDir != null ? cacheDir.listFiles() : null;
+        if (children == null) {
+            return;
+        }
+
+        final Set<String> hashesToRetain = new HashSet<>();
+        for (final String key : keysToRetain) {
+            hashesToRetain.add(StringEncoder.sha2hash(key));
+        }
+
+        for (final File child : children) {
+            final String name = child.getName();
+            if (!hashesToRetain.contains(name.substring(0, Math.min(CACHE_KEY_HASH_LENGTH, name.length())))) {
+                deleteRecursively(child, reclaimedSpace);
             }
-        } else {
-            for (final String asset : assetsToRetain) {
-                if (!cacheAsset.getName().equals(StringEncoder.sha2hash(asset)) && cacheAsset.exists()) {
-                    cacheAsset.delete();
+        }
+    }
+
+    /**
+     * Deletes the given file or directory and everything it contains.
+     *
+     * @param file           {@link File} to delete
+     * @param reclaimedSpace {@link ReclaimedSpace} to add the deleted files and bytes to
+     */
+    private static void deleteRecursively(final File file, final ReclaimedSpace reclaimedSpace) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children != null) {
+                for (final File child : children) {
+                    deleteRecursively(child, reclaimedSpace);
                 }
             }
+            file.delete();
+            return;
+        }
+
+        final long length = file.length();
+        if (file.delete()) {
+            reclaimedSpace.files++;
+            reclaimedSpace.bytes += length;
         }
     }
 
@@ -95,6 +167,109 @@ class Utils {
         return metadata;
     }
 
+    /**
+     * Extracts the time until which the response content is fresh, from the {@code HTTP_HEADER_CACHE_CONTROL} {@code max-age}
+     * directive or, if absent, the {@code HTTP_HEADER_EXPIRES} response header.
+     * <p>
+     * The {@code HTTP_HEADER_EXPIRES} date is converted to a lifetime using the {@code HTTP_HEADER_DATE} response header when
+     * present, so that it does not depend on the device clock being in sync with the server clock.
+     *
+     * @param response the {@code HttpConnecting} from where the response headers should be extracted from
+     * @return the epoch time in milliseconds until which the content is fresh, or 0 if the content must be revalidated
+     */
+    static long extractFreshUntilFromResponse(final HttpConnecting response) {
+        if (response == null) {
+            return 0L;
+        }
+
+        final long now = System.currentTimeMillis();
+        final String cacheControl = response.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CACHE_CONTROL);
+        if (!StringUtils.isNullOrEmpty(cacheControl)) {
+            long maxAgeSeconds = -1L;
+            for (final String directive : cacheControl.split(",")) {
+                final String trimmedDirective = directive.trim().toLowerCase(Locale.US);
+                if (trimmedDirective.equals("no-cache") || trimmedDirective.equals("no-store")) {
+                    return 0L;
+                }
+
+                if (trimmedDirective.startsWith("max-age=")) {
+                    try {
+                        maxAgeSeconds = Long.parseLong(trimmedDirective.substring("max-age=".length()).replace("\"", "").trim());
+                    } catch (final NumberFormatException e) {
+                        return 0L;
+                    }
+                }
+            }
+
+            if (maxAgeSeconds >= 0) {
+                return maxAgeSeconds > 0 ? now + Math.min(maxAgeSeconds, Integer.MAX_VALUE) * 1000L : 0L;
+            }
+        }
+
+        final String expires = response.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_EXPIRES);
+        final Date expiresDate = StringUtils.isNullOrEmpty(expires)
+                ? null
+                : TimeUtils.parseRFC2822Date(expires.trim(), TimeZone.getTimeZone("GMT"), Locale.US);
+        if (expiresDate == null) {
+            return 0L;
+        }
+
+        final String date = response.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_DATE);
+        final Date responseDate = StringUtils.isNullOrEmpty(date)
+                ? null
+                : TimeUtils.parseRFC2822Date(date.trim(), TimeZone.getTimeZone("GMT"), Locale.US);
+        final long freshUntil = responseDate != null
+                ? now + (expiresDate.getTime() - responseDate.getTime())
+                : expiresDate.getTime();
+        return freshUntil > now ? freshUntil : 0L;
+    }
+
+    /**
+     * Determines whether the provided cached content is fresh, based on the {@code METADATA_FRESH_UNTIL} value stored in its metadata.
+     *
+     * @param cacheResult the {@code CacheResult} to check
+     * @return {@code boolean} indicating whether the cached content can be used without revalidating it
+     */
+    static boolean isFresh(final CacheResult cacheResult) {
+        final Map<String, String> metadata = cacheResult != null ? cacheResult.getMetadata() : null;
+        final String freshUntil = metadata != null ? metadata.get(CampaignConstants.METADATA_FRESH_UNTIL) : null;
+        if (StringUtils.isNullOrEmpty(freshUntil)) {
+            return false;
+        }
+
+        try {
+            return Long.parseLong(freshUntil) > System.currentTimeMillis();
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Extracts the number of seconds to wait before retrying a request from the {@code HTTP_HEADER_RETRY_AFTER} response header.
+     * <p>
+     * The header value can either be a number of seconds or an RFC-2822 date.
+     *
+     * @param response the {@code HttpConnecting} from where the response header should be extracted from
+     * @return the number of seconds to wait before retrying, or 0 if the header is absent or invalid
+     */
+    static int extractRetryAfterSecondsFromResponse(final HttpConnecting response) {
+        final String retryAfter = response != null ? response.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_RETRY_AFTER) : null;
+        if (StringUtils.isNullOrEmpty(retryAfter)) {
+            return 0;
+        }
+
+        try {
+            return Math.max(0, Integer.parseInt(retryAfter.trim()));
+        } catch (final NumberFormatException e) {
+            final Date retryAfterDate = TimeUtils.parseRFC2822Date(retryAfter.trim(), TimeZone.getTimeZone("GMT"), Locale.US);
+            if (retryAfterDate == null) {
+                return 0;
+            }
+            final long retryAfterSeconds = (retryAfterDate.getTime() - System.currentTimeMillis()) / 1000;
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, retryAfterSeconds));
+        }
+    }
+
     /**
      * Creates http headers for conditional fetching, based on the metadata of the
      * {@code CacheResult} provided.
@@ -162,4 +337,12 @@ class Utils {
 
         return parameters;
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts the files and bytes deleted by a cache clean up.
+     */
+    static final class ReclaimedSpace {
+        int files;
+        long bytes;
+    }
+}
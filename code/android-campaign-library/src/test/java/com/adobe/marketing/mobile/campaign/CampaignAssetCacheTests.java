@@ -0,0 +1,436 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
+import com.adobe.marketing.mobile.services.DeviceInforming;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StreamUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CampaignAssetCacheTests {
+
+    private CampaignAssetCache campaignAssetCache;
+    private File cacheDir;
+    private static final String assetUrl = "https://www.adobe.com/logo.png";
+    private static final String unusedAssetUrl = "https://www.adobe.com/banner.png";
+    private static final String loadedMessageId = "07a1c997-2450-46f0-a454-537906404124";
+    private static final String unloadedMessageId = "d38a46f6-4f43-435a-a862-4038c27b90a1";
+    private static final String CAMPAIGN_CACHE_DIR = "cache/aepsdkcache/campaign/";
+
+    @Mock
+    ServiceProvider mockServiceProvider;
+    @Mock
+    CacheService mockCacheService;
+    @Mock
+    CacheResult mockCacheResult;
+    @Mock
+    DeviceInforming mockDeviceInfoService;
+
+    @Before
+    public void setup() {
+        cacheDir = new File("cache");
+        cacheDir.mkdirs();
+        campaignAssetCache = new CampaignAssetCache(mockCacheService);
+    }
+
+    @After
+    public void tearDown() {
+        clearCacheFiles(cacheDir);
+    }
+
+    /**
+     * Deletes the directory and all files inside it.
+     *
+     * @param file instance of {@link File} points to the directory need to be deleted.
+     */
+    private static void clearCacheFiles(final File file) {
+        // clear files from directory first
+        if (file.isDirectory()) {
+            String[] children = file.list();
+
+            if (children != null) {
+                for (final String child : children) {
+                    final File childFile = new File(file, child);
+                    clearCacheFiles(childFile);
+                }
+            }
+        }
+
+        file.delete(); // delete file or empty directory
+    }
+
+    private File createCacheFile(final String path, final String content) {
+        final File file = new File(CAMPAIGN_CACHE_DIR + path);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+        return file;
+    }
+
+    // ====================================================================================================
+    // CacheResult getAsset(final String url)
+    // ====================================================================================================
+    @Test
+    public void test_getAsset_When_AssetCached_Then_AssetReadFromSharedAssetCache() {
+        // setup
+        when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+
+        // test
+        CacheResult cacheResult = campaignAssetCache.getAsset(assetUrl);
+
+        // verify
+        assertEquals(mockCacheResult, cacheResult);
+    }
+
+    @Test
+    public void test_getAsset_When_AssetMetadataUpdated_Then_UpdatedMetadataReturnedWithCachedAssetPath() {
+        // setup
+        final Map<String, String> assetMetadata = new HashMap<>();
+        assetMetadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assets/logo");
+        assetMetadata.put(CampaignConstants.HTTP_HEADER_ETAG, "oldETag");
+        when(mockCacheResult.getMetadata()).thenReturn(assetMetadata);
+        when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+        final Map<String, String> updatedMetadata = new HashMap<>();
+        updatedMetadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assetMetadata/logo");
+        updatedMetadata.put(CampaignConstants.HTTP_HEADER_ETAG, "newETag");
+        updatedMetadata.put(CampaignConstants.METADATA_FRESH_UNTIL, "123");
+        final CacheResult mockMetadataCacheResult = Mockito.mock(CacheResult.class);
+        when(mockMetadataCacheResult.getMetadata()).thenReturn(updatedMetadata);
+        when(mockCacheService.get(eq(CampaignAssetCache.ASSET_METADATA_CACHE_NAME), eq(assetUrl))).thenReturn(mockMetadataCacheResult);
+
+        // test
+        CacheResult cacheResult = campaignAssetCache.getAsset(assetUrl);
+
+        // verify
+        assertEquals("cache/aepsdkcache/campaign/assets/logo", cacheResult.getMetadata().get(CampaignConstants.METADATA_PATH));
+        assertEquals("newETag", cacheResult.getMetadata().get(CampaignConstants.HTTP_HEADER_ETAG));
+        assertEquals("123", cacheResult.getMetadata().get(CampaignConstants.METADATA_FRESH_UNTIL));
+    }
+
+    // ====================================================================================================
+    // boolean updateAssetMetadata(final String url, final Map<String, String> metadata)
+    // ====================================================================================================
+    @Test
+    public void test_updateAssetMetadata_When_Invoked_Then_MetadataCachedInSidecarEntryWithoutReadingAsset() {
+        // setup
+        when(mockCacheService.set(anyString(), anyString(), any(CacheEntry.class))).thenReturn(true);
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put(CampaignConstants.METADATA_FRESH_UNTIL, "123");
+
+        // test
+        assertTrue(campaignAssetCache.updateAssetMetadata(assetUrl, metadata));
+
+        // verify
+        verify(mockCacheService, times(0)).get(eq(CampaignAssetCache.ASSET_CACHE_NAME), anyString());
+        verify(mockCacheService, times(0)).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), anyString(), any(CacheEntry.class));
+        verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_METADATA_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+    }
+
+    // ====================================================================================================
+    // boolean cacheAsset(final String url, final InputStream data, final Map<String, String> metadata)
+    // ====================================================================================================
+    @Test
+    public void test_cacheAsset_When_AssetCached_Then_MessageContentUsingAssetInvalidated() {
+        // setup
+        when(mockCacheService.set(anyString(), anyString(), any(CacheEntry.class))).thenReturn(true);
+        CampaignMessageContentCache messageContentCache = new CampaignMessageContentCache();
+        messageContentCache.put(loadedMessageId, "message.html", "<html></html>", Collections.singletonList(assetUrl), null);
+        campaignAssetCache = new CampaignAssetCache(mockCacheService, messageContentCache);
+
+        // test
+        boolean cached = campaignAssetCache.cacheAsset(assetUrl, new ByteArrayInputStream(new byte[1]), null);
+
+        // verify
+        assertTrue(cached);
+        verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+        assertNull(messageContentCache.get(loadedMessageId, "message.html"));
+    }
+
+    // ====================================================================================================
+    // boolean cacheManifest(final String messageId, final List<String> assetUrls)
+    // List<String> getManifest(final String messageId)
+    // ====================================================================================================
+    @Test
+    public void test_getManifest_When_ManifestCached_Then_AssetUrlsReturned() {
+        // setup
+        when(mockCacheService.set(anyString(), anyString(), any(CacheEntry.class))).thenReturn(true);
+        ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+        List<String> assetUrls = new ArrayList<>();
+        assetUrls.add(assetUrl);
+        assetUrls.add(unusedAssetUrl);
+
+        // test
+        assertTrue(campaignAssetCache.cacheManifest(loadedMessageId, assetUrls));
+        verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY), cacheEntryArgumentCaptor.capture());
+        when(mockCacheResult.getData()).thenReturn(cacheEntryArgumentCaptor.getValue().getData());
+        when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockCacheResult);
+
+        // verify
+        assertEquals(assetUrls, campaignAssetCache.getManifest(loadedMessageId));
+    }
+
+    @Test
+    public void test_getManifest_When_NoManifestCached_Then_EmptyListReturned() {
+        // verify
+        assertTrue(campaignAssetCache.getManifest(loadedMessageId).isEmpty());
+    }
+
+    // ====================================================================================================
+    // boolean cacheResolvedManifest(final String messageId, final List<String> assetUrls, final Map<String, String> resolvedAssets)
+    // Map<String, String> getResolvedAssets(final String messageId)
+    // ====================================================================================================
+    @Test
+    public void test_getResolvedAssets_When_ResolvedManifestCached_Then_AssetUrlsAndPathsReturned() {
+        // setup
+        when(mockCacheService.set(anyString(), anyString(), any(CacheEntry.class))).thenReturn(true);
+        ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+        List<String> assetUrls = new ArrayList<>();
+        assetUrls.add(assetUrl);
+        assetUrls.add(unusedAssetUrl);
+        Map<String, String> resolvedAssets = new HashMap<>();
+        resolvedAssets.put(assetUrl, "cache/aepsdkcache/campaign/assets/logo");
+
+        // test
+        assertTrue(campaignAssetCache.cacheResolvedManifest(loadedMessageId, assetUrls, resolvedAssets));
+        verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY), cacheEntryArgumentCaptor.capture());
+        String manifest = StreamUtils.readAsString(cacheEntryArgumentCaptor.getValue().getData());
+        when(mockCacheResult.getData()).thenAnswer(invocation -> new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockCacheResult);
+
+        // verify
+        assertEquals(resolvedAssets, campaignAssetCache.getResolvedAssets(loadedMessageId));
+        assertEquals(assetUrls, campaignAssetCache.getManifest(loadedMessageId));
+    }
+
+    @Test
+    public void test_getResolvedAssets_When_ManifestNotResolved_Then_NullReturned() {
+        // setup
+        when(mockCacheResult.getData()).thenReturn(new ByteArrayInputStream(("[\"" + assetUrl + "\"]").getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockCacheResult);
+
+        // verify
+        assertNull(campaignAssetCache.getResolvedAssets(loadedMessageId));
+    }
+
+    // ====================================================================================================
+    // Utils.ReclaimedSpace removeUnusedAssets(final Collection<String> loadedMessageIds)
+    // ====================================================================================================
+    @Test
+    public void test_removeUnusedAssets_When_MessagesNoLongerLoaded_Then_TheirManifestsAndUnusedAssetsRemoved() {
+        // setup
+        final File loadedManifest = createCacheFile("messages/" + loadedMessageId + "/" + StringEncoder.sha2hash(CampaignConstants.MESSAGE_MANIFEST_KEY), "[\"" + assetUrl + "\"]");
+        final File unloadedManifest = createCacheFile("messages/" + unloadedMessageId + "/" + StringEncoder.sha2hash(CampaignConstants.MESSAGE_MANIFEST_KEY), "[\"" + unusedAssetUrl + "\"]");
+        final File usedAsset = createCacheFile("assets/" + StringEncoder.sha2hash(assetUrl), "logo");
+        final File usedAssetMetadata = createCacheFile("assets/" + StringEncoder.sha2hash(assetUrl) + "_metadata.txt", "{}");
+        final File unusedAsset = createCacheFile("assets/" + StringEncoder.sha2hash(unusedAssetUrl), "banner");
+        final File unusedAssetMetadata = createCacheFile("assets/" + StringEncoder.sha2hash(unusedAssetUrl) + "_metadata.txt", "{}");
+        final long expectedReclaimedBytes = unloadedManifest.length() + unusedAsset.length() + unusedAssetMetadata.length();
+        Utils.ReclaimedSpace reclaimedSpace;
+        when(mockCacheResult.getData()).thenReturn(new ByteArrayInputStream(("[\"" + assetUrl + "\"]").getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockCacheResult);
+
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
+
+            // test
+            reclaimedSpace = campaignAssetCache.removeUnusedAssets(Collections.singletonList(loadedMessageId));
+        }
+
+        // verify
+        assertTrue(loadedManifest.exists());
+        assertFalse(unloadedManifest.exists());
+        assertFalse(unloadedManifest.getParentFile().exists());
+        assertTrue(usedAsset.exists());
+        assertTrue(usedAssetMetadata.exists());
+        assertFalse(unusedAsset.exists());
+        assertFalse(unusedAssetMetadata.exists());
+        assertEquals(3, reclaimedSpace.files);
+        assertEquals(expectedReclaimedBytes, reclaimedSpace.bytes);
+    }
+
+    @Test
+    public void test_removeUnusedAssets_When_LoadedMessageHasAssetsCachedPerMessage_Then_OnlyManifestKept() {
+        // setup
+        final File loadedManifest = createCacheFile("messages/" + loadedMessageId + "/" + StringEncoder.sha2hash(CampaignConstants.MESSAGE_MANIFEST_KEY), "[\"" + assetUrl + "\"]");
+        final File loadedManifestMetadata = createCacheFile("messages/" + loadedMessageId + "/" + StringEncoder.sha2hash(CampaignConstants.MESSAGE_MANIFEST_KEY) + "_metadata.txt", "{}");
+        final File legacyAsset = createCacheFile("messages/" + loadedMessageId + "/" + StringEncoder.sha2hash(assetUrl), "logo");
+        Utils.ReclaimedSpace reclaimedSpace;
+        when(mockCacheResult.getData()).thenReturn(new ByteArrayInputStream(("[\"" + assetUrl + "\"]").getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + loadedMessageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockCacheResult);
+
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
+
+            // test
+            reclaimedSpace = campaignAssetCache.removeUnusedAssets(Collections.singletonList(loadedMessageId));
+        }
+
+        // verify
+        assertTrue(loadedManifest.exists());
+        assertTrue(loadedManifestMetadata.exists());
+        assertFalse(legacyAsset.exists());
+        assertEquals(1, reclaimedSpace.files);
+    }
+
+    @Test
+    public void test_removeUnusedAssets_When_ApplicationCacheDirUnavailable_Then_NothingReclaimed() {
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(null);
+
+            // test
+            Utils.ReclaimedSpace reclaimedSpace = campaignAssetCache.removeUnusedAssets(Collections.singletonList(loadedMessageId));
+
+            // verify
+            assertEquals(0, reclaimedSpace.files);
+            assertEquals(0, reclaimedSpace.bytes);
+        }
+    }
+
+    // ====================================================================================================
+    // Partial assets
+    // ====================================================================================================
+    @Test
+    public void test_openPartialAsset_When_PartialAssetWritten_Then_PartialAssetCanBeResumed() {
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
+
+            // test
+            try (OutputStream outputStream = campaignAssetCache.openPartialAsset(assetUrl, "\"ABCDE-12345\"", false)) {
+                outputStream.write("asset".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            final CampaignAssetCache.PartialAsset partialAsset = campaignAssetCache.getPartialAsset(assetUrl);
+
+            // verify
+            assertEquals(5, partialAsset.getLength());
+            assertEquals("\"ABCDE-12345\"", partialAsset.getValidator());
+            assertEquals(partialAsset.getLength() + partialAsset.getValidator().length(), campaignAssetCache.getAssetCacheSize());
+
+            // test
+            campaignAssetCache.removePartialAsset(assetUrl);
+
+            // verify
+            assertNull(campaignAssetCache.getPartialAsset(assetUrl));
+            assertEquals(0, campaignAssetCache.getAssetCacheSize());
+        }
+    }
+
+    @Test
+    public void test_cachePartialAsset_When_PartialAssetComplete_Then_PartialAssetStreamedIntoCacheAndSizeKept() {
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
+            // setup, the cache service writes the asset data like the file cache service does
+            final File cachedAsset = new File(CAMPAIGN_CACHE_DIR + "assets/" + StringEncoder.sha2hash(assetUrl));
+            doAnswer((Answer<Boolean>) invocation -> {
+                final CacheEntry cacheEntry = invocation.getArgument(2);
+                cachedAsset.getParentFile().mkdirs();
+                try (InputStream data = cacheEntry.getData(); OutputStream outputStream = new FileOutputStream(cachedAsset)) {
+                    outputStream.write(StreamUtils.readAsString(data).getBytes(StandardCharsets.UTF_8));
+                }
+                return true;
+            }).when(mockCacheService).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+            try (OutputStream outputStream = campaignAssetCache.openPartialAsset(assetUrl, "", false)) {
+                outputStream.write("asset".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            assertEquals(5, campaignAssetCache.getAssetCacheSize());
+
+            // test
+            assertTrue(campaignAssetCache.cachePartialAsset(assetUrl, new HashMap<>()));
+
+            // verify
+            try (InputStream data = new FileInputStream(cachedAsset)) {
+                assertEquals("asset", StreamUtils.readAsString(data));
+            }
+            assertNull(campaignAssetCache.getPartialAsset(assetUrl));
+            assertEquals(5, campaignAssetCache.getAssetCacheSize());
+
+            // test
+            campaignAssetCache.removeAsset(assetUrl);
+
+            // verify
+            assertEquals(0, campaignAssetCache.getAssetCacheSize());
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_openPartialAsset_When_ApplicationCacheDirUnavailable_Then_ReturnsNull() {
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(null);
+
+            // test and verify
+            assertNull(campaignAssetCache.openPartialAsset(assetUrl, "\"ABCDE-12345\"", false));
+            assertNull(campaignAssetCache.getPartialAsset(assetUrl));
+        }
+    }
+}
@@ -0,0 +1,583 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
+import com.adobe.marketing.mobile.services.DeviceInforming;
+import com.adobe.marketing.mobile.services.HttpConnecting;
+import com.adobe.marketing.mobile.services.NetworkCallback;
+import com.adobe.marketing.mobile.services.NetworkRequest;
+import com.adobe.marketing.mobile.services.Networking;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheExpiry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StreamUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CampaignAssetDownloadSchedulerTests {
+
+    private CampaignAssetDownloadScheduler campaignAssetDownloadScheduler;
+    private List<NetworkRequest> networkRequests;
+    private List<NetworkCallback> networkCallbacks;
+    private static final String assetUrl = "https://www.adobe.com/logo.png";
+    private static final String ETAG = "\"ABCDE-12345\"";
+    private static final String CAMPAIGN_CACHE_DIR = "cache/aepsdkcache/campaign/";
+    private File cacheDir;
+
+    @Mock
+    ServiceProvider mockServiceProvider;
+    @Mock
+    CacheService mockCacheService;
+    @Mock
+    CacheResult mockCacheResult;
+    @Mock
+    Networking mockNetworkService;
+    @Mock
+    HttpConnecting mockHttpConnection;
+    @Mock
+    DeviceInforming mockDeviceInfoService;
+
+    @Before
+    public void setup() {
+        networkRequests = new ArrayList<>();
+        networkCallbacks = new ArrayList<>();
+        when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockHttpConnection.getInputStream()).thenReturn(new ByteArrayInputStream("assetData".getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheResult.getData()).thenReturn(new ByteArrayInputStream("assetData".getBytes(StandardCharsets.UTF_8)));
+        when(mockCacheService.set(anyString(), anyString(), any(CacheEntry.class))).thenReturn(true);
+        // capture network requests without completing them
+        doAnswer((Answer<Void>) invocation -> {
+            networkRequests.add(invocation.getArgument(0));
+            networkCallbacks.add(invocation.getArgument(1));
+            return null;
+        }).when(mockNetworkService)
+                .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+    }
+
+    @After
+    public void tearDown() {
+        if (cacheDir != null) {
+            clearCacheFiles(cacheDir);
+        }
+    }
+
+    /**
+     * Deletes the directory and all files inside it.
+     *
+     * @param file instance of {@link File} points to the directory need to be deleted.
+     */
+    private static void clearCacheFiles(final File file) {
+        // clear files from directory first
+        if (file.isDirectory()) {
+            String[] children = file.list();
+
+            if (children != null) {
+                for (final String child : children) {
+                    final File childFile = new File(file, child);
+                    clearCacheFiles(childFile);
+                }
+            }
+        }
+
+        file.delete(); // delete file or empty directory
+    }
+
+    private File createCacheFile(final String path, final String content) {
+        final File file = new File(CAMPAIGN_CACHE_DIR + path);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+        return file;
+    }
+
+    private void setupServiceProviderMockWithCacheDirAndRunTest(long maxAssetSize, long maxAssetCacheSize, Runnable testRunnable) {
+        cacheDir = new File("cache");
+        cacheDir.mkdirs();
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getCacheService()).thenReturn(mockCacheService);
+            when(mockServiceProvider.getNetworkService()).thenReturn(mockNetworkService);
+            when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+            when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
+            // create CampaignAssetDownloadScheduler instance
+            campaignAssetDownloadScheduler = new CampaignAssetDownloadScheduler(new CampaignAssetCache(mockCacheService), 2, maxAssetSize, maxAssetCacheSize);
+            testRunnable.run();
+        }
+    }
+
+    private void setupServiceProviderMockAndRunTest(boolean networkServiceNull, int maxConcurrentDownloads, Runnable testRunnable) {
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic.when(ServiceProvider::getInstance).thenReturn(mockServiceProvider);
+            when(mockServiceProvider.getCacheService()).thenReturn(mockCacheService);
+            when(mockServiceProvider.getNetworkService()).thenReturn(networkServiceNull ? null : mockNetworkService);
+            // create CampaignAssetDownloadScheduler instance
+            campaignAssetDownloadScheduler = new CampaignAssetDownloadScheduler(new CampaignAssetCache(mockCacheService), maxConcurrentDownloads);
+            testRunnable.run();
+        }
+    }
+
+    // ====================================================================================================
+    // void schedule(final String url, final int priority)
+    // ====================================================================================================
+    @Test
+    public void test_schedule_When_AssetRequestedByMultipleMessages_Then_AssetDownloadedAndCachedOnce() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            campaignAssetDownloadScheduler.schedule(assetUrl, 1);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify single download
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            // verify asset cached once in the shared asset cache
+            verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+            assertEquals(0, campaignAssetDownloadScheduler.getScheduledDownloadCount());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_ConcurrencyLimitReached_Then_QueuedAssetsDownloadedByPriority() {
+        setupServiceProviderMockAndRunTest(false, 1, () -> {
+            // test
+            campaignAssetDownloadScheduler.schedule("https://www.adobe.com/asset0.png", 5);
+            campaignAssetDownloadScheduler.schedule("https://www.adobe.com/asset1.png", 5);
+            campaignAssetDownloadScheduler.schedule("https://www.adobe.com/asset2.png", 0);
+
+            // verify only one download started
+            assertEquals(1, networkRequests.size());
+            assertEquals(3, campaignAssetDownloadScheduler.getScheduledDownloadCount());
+
+            // complete downloads
+            networkCallbacks.get(0).call(mockHttpConnection);
+            networkCallbacks.get(1).call(mockHttpConnection);
+            networkCallbacks.get(2).call(mockHttpConnection);
+
+            // verify higher priority asset downloaded first
+            assertEquals(3, networkRequests.size());
+            assertEquals("https://www.adobe.com/asset0.png", networkRequests.get(0).getUrl());
+            assertEquals("https://www.adobe.com/asset2.png", networkRequests.get(1).getUrl());
+            assertEquals("https://www.adobe.com/asset1.png", networkRequests.get(2).getUrl());
+            assertEquals(0, campaignAssetDownloadScheduler.getScheduledDownloadCount());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetCached_Then_ConditionalRequestSentAndAssetNotCachedAgain() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, ETAG);
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify conditional request
+            assertEquals(ETAG, networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_IF_NONE_MATCH));
+            // verify asset not cached again
+            verify(mockCacheService, times(0)).set(anyString(), anyString(), any(CacheEntry.class));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_NetworkServiceUnavailable_Then_NoAssetDownloaded() {
+        setupServiceProviderMockAndRunTest(true, 2, () -> {
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+
+            // verify
+            verify(mockNetworkService, times(0)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            assertEquals(0, campaignAssetDownloadScheduler.getScheduledDownloadCount());
+        });
+    }
+
+    // ====================================================================================================
+    // void schedule(final String url, final int priority, final CompletionListener completionListener)
+    // ====================================================================================================
+    @Test
+    public void test_schedule_When_AssetRequestedByMultipleMessages_Then_AllCompletionListenersNotifiedOnceDownloaded() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            final AtomicInteger firstListenerCalls = new AtomicInteger();
+            final AtomicInteger secondListenerCalls = new AtomicInteger();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> firstListenerCalls.incrementAndGet());
+            campaignAssetDownloadScheduler.schedule(assetUrl, 1, (url, cachedAssetPath) -> secondListenerCalls.incrementAndGet());
+
+            // verify listeners not notified before the download completes
+            assertEquals(0, firstListenerCalls.get());
+            assertEquals(0, secondListenerCalls.get());
+
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            assertEquals(1, firstListenerCalls.get());
+            assertEquals(1, secondListenerCalls.get());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_NetworkServiceUnavailable_Then_CompletionListenerNotified() {
+        setupServiceProviderMockAndRunTest(true, 2, () -> {
+            // setup
+            final AtomicInteger listenerCalls = new AtomicInteger();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> listenerCalls.incrementAndGet());
+
+            // verify
+            assertEquals(1, listenerCalls.get());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetDownloaded_Then_CompletionListenerReceivesCachedAssetPath() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assets/logo");
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(null, mockCacheResult);
+            final List<String> cachedAssetPaths = new ArrayList<>();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> cachedAssetPaths.add(cachedAssetPath));
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            assertEquals(1, cachedAssetPaths.size());
+            assertEquals("cache/aepsdkcache/campaign/assets/logo", cachedAssetPaths.get(0));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetNotModified_Then_CompletionListenerReceivesPreviouslyCachedAssetPath() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, ETAG);
+            metadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assets/logo");
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            final List<String> cachedAssetPaths = new ArrayList<>();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> cachedAssetPaths.add(cachedAssetPath));
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify asset cache only read once to build the conditional request
+            verify(mockCacheService, times(1)).get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl));
+            assertEquals("cache/aepsdkcache/campaign/assets/logo", cachedAssetPaths.get(0));
+        });
+    }
+
+    // ====================================================================================================
+    // Asset freshness
+    // ====================================================================================================
+    @Test
+    public void test_schedule_When_CachedAssetFresh_Then_AssetNotRevalidated() {
+        setupServiceProviderMockAndRunTest(false, 1, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, ETAG);
+            metadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assets/logo");
+            metadata.put(CampaignConstants.METADATA_FRESH_UNTIL, String.valueOf(System.currentTimeMillis() + 60000));
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+            final List<String> cachedAssetPaths = new ArrayList<>();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> cachedAssetPaths.add(cachedAssetPath));
+            campaignAssetDownloadScheduler.schedule("https://www.adobe.com/banner.png", 0);
+
+            // verify fresh asset not requested and next queued asset downloaded
+            assertEquals(1, networkRequests.size());
+            assertEquals("https://www.adobe.com/banner.png", networkRequests.get(0).getUrl());
+            assertEquals("cache/aepsdkcache/campaign/assets/logo", cachedAssetPaths.get(0));
+            assertEquals(1, campaignAssetDownloadScheduler.getScheduledDownloadCount());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_CachedAssetStale_Then_AssetRevalidated() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, ETAG);
+            metadata.put(CampaignConstants.METADATA_FRESH_UNTIL, String.valueOf(System.currentTimeMillis() - 1000));
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+
+            // verify
+            assertEquals(1, networkRequests.size());
+            assertEquals(ETAG, networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_IF_NONE_MATCH));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_ResponseHasMaxAge_Then_FreshnessStoredInAssetMetadata() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            when(mockHttpConnection.getResponsePropertyValue(eq(CampaignConstants.HTTP_HEADER_CACHE_CONTROL))).thenReturn("public, max-age=3600");
+            ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+            final long minimumFreshUntil = System.currentTimeMillis() + 3600 * 1000L;
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), cacheEntryArgumentCaptor.capture());
+            final long freshUntil = Long.parseLong(cacheEntryArgumentCaptor.getValue().getMetadata().get(CampaignConstants.METADATA_FRESH_UNTIL));
+            assertTrue(freshUntil >= minimumFreshUntil);
+            assertEquals(CacheExpiry.never().getExpiration(), cacheEntryArgumentCaptor.getValue().getExpiry().getExpiration());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_ResponseHasNoCache_Then_NoFreshnessStored() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            when(mockHttpConnection.getResponsePropertyValue(eq(CampaignConstants.HTTP_HEADER_CACHE_CONTROL))).thenReturn("no-cache, max-age=3600");
+            ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), cacheEntryArgumentCaptor.capture());
+            assertNull(cacheEntryArgumentCaptor.getValue().getMetadata().get(CampaignConstants.METADATA_FRESH_UNTIL));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_NotModifiedResponseHasExpires_Then_CachedAssetFreshnessUpdated() {
+        setupServiceProviderMockAndRunTest(false, 2, () -> {
+            // setup
+            HashMap<String, String> metadata = new HashMap<>();
+            metadata.put(CampaignConstants.HTTP_HEADER_ETAG, ETAG);
+            metadata.put(CampaignConstants.METADATA_PATH, "cache/aepsdkcache/campaign/assets/logo");
+            when(mockCacheResult.getMetadata()).thenReturn(metadata);
+            when(mockCacheService.get(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl))).thenReturn(mockCacheResult);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            when(mockHttpConnection.getResponsePropertyValue(eq(CampaignConstants.HTTP_HEADER_DATE))).thenReturn("Wed, 21 Oct 2015 07:28:00 GMT");
+            when(mockHttpConnection.getResponsePropertyValue(eq(CampaignConstants.HTTP_HEADER_EXPIRES))).thenReturn("Wed, 21 Oct 2015 08:28:00 GMT");
+            ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+            final long minimumFreshUntil = System.currentTimeMillis() + 3600 * 1000L;
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify asset data not rewritten and freshness cached in the asset metadata sidecar entry
+            verify(mockCacheService, never()).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), anyString(), any(CacheEntry.class));
+            verify(mockCacheService, times(1)).set(eq(CampaignAssetCache.ASSET_METADATA_CACHE_NAME), eq(assetUrl), cacheEntryArgumentCaptor.capture());
+            final CacheEntry cacheEntry = cacheEntryArgumentCaptor.getValue();
+            assertEquals("", StreamUtils.readAsString(cacheEntry.getData()));
+            assertEquals(ETAG, cacheEntry.getMetadata().get(CampaignConstants.HTTP_HEADER_ETAG));
+            assertNull(cacheEntry.getMetadata().get(CampaignConstants.METADATA_PATH));
+            assertTrue(Long.parseLong(cacheEntry.getMetadata().get(CampaignConstants.METADATA_FRESH_UNTIL)) >= minimumFreshUntil);
+        });
+    }
+
+    // ====================================================================================================
+    // Resumable and size-capped downloads
+    // ====================================================================================================
+    @Test
+    public void test_schedule_When_ContentLengthExceedsMaxAssetSize_Then_AssetNotDownloaded() {
+        setupServiceProviderMockWithCacheDirAndRunTest(8, 1024, () -> {
+            // setup
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_LENGTH)).thenReturn("9");
+            final List<String> cachedAssetPaths = new ArrayList<>();
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0, (url, cachedAssetPath) -> cachedAssetPaths.add(cachedAssetPath));
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify asset rejected before reading the response body
+            verify(mockHttpConnection, never()).getInputStream();
+            verify(mockCacheService, never()).set(anyString(), anyString(), any(CacheEntry.class));
+            assertNull(cachedAssetPaths.get(0));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetExceedsMaxAssetSizeWithoutContentLength_Then_PartialAssetRemoved() {
+        setupServiceProviderMockWithCacheDirAndRunTest(8, 1024, () -> {
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            verify(mockCacheService, never()).set(anyString(), anyString(), any(CacheEntry.class));
+            assertFalse(new File(CAMPAIGN_CACHE_DIR + "partialAssets/" + StringEncoder.sha2hash(assetUrl)).exists());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetExceedsAssetCacheBudget_Then_AssetNotDownloaded() {
+        setupServiceProviderMockWithCacheDirAndRunTest(1024, 16, () -> {
+            // setup
+            createCacheFile("assets/" + StringEncoder.sha2hash("https://www.adobe.com/banner.png"), "bannerData");
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_LENGTH)).thenReturn("9");
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            verify(mockHttpConnection, never()).getInputStream();
+            verify(mockCacheService, never()).set(anyString(), anyString(), any(CacheEntry.class));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_PartialAssetDownloaded_Then_DownloadResumedWithRangeRequest() {
+        setupServiceProviderMockWithCacheDirAndRunTest(1024, 1024, () -> {
+            // setup
+            createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl), "asset");
+            createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl) + "_validator.txt", ETAG);
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+
+            // verify
+            assertEquals("bytes=5-", networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_RANGE));
+            assertEquals(ETAG, networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_IF_RANGE));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_PartialContentReceived_Then_AssetAppendedAndCached() {
+        setupServiceProviderMockWithCacheDirAndRunTest(1024, 1024, () -> {
+            // setup
+            final File partialAsset = createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl), "asset");
+            createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl) + "_validator.txt", ETAG);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_PARTIAL);
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_RANGE)).thenReturn("bytes 5-8/9");
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_LENGTH)).thenReturn("4");
+            when(mockHttpConnection.getInputStream()).thenReturn(new ByteArrayInputStream("Data".getBytes(StandardCharsets.UTF_8)));
+            final List<String> cachedData = new ArrayList<>();
+            doAnswer((Answer<Boolean>) invocation -> {
+                final CacheEntry cacheEntry = invocation.getArgument(2);
+                try (InputStream data = cacheEntry.getData()) {
+                    cachedData.add(StreamUtils.readAsString(data));
+                }
+                return true;
+            }).when(mockCacheService).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            assertEquals(1, cachedData.size());
+            assertEquals("assetData", cachedData.get(0));
+            assertFalse(partialAsset.exists());
+        });
+    }
+
+    @Test
+    public void test_schedule_When_AssetReplacesCachedAsset_Then_CachedAssetNotCountedInAssetCacheBudget() {
+        setupServiceProviderMockWithCacheDirAndRunTest(1024, 16, () -> {
+            // setup
+            createCacheFile("assets/" + StringEncoder.sha2hash(assetUrl), "oldAssetData");
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_LENGTH)).thenReturn("9");
+            final List<String> cachedData = new ArrayList<>();
+            doAnswer((Answer<Boolean>) invocation -> {
+                final CacheEntry cacheEntry = invocation.getArgument(2);
+                try (InputStream data = cacheEntry.getData()) {
+                    cachedData.add(StreamUtils.readAsString(data));
+                }
+                return true;
+            }).when(mockCacheService).set(eq(CampaignAssetCache.ASSET_CACHE_NAME), eq(assetUrl), any(CacheEntry.class));
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            assertEquals(1, cachedData.size());
+            assertEquals("assetData", cachedData.get(0));
+        });
+    }
+
+    @Test
+    public void test_schedule_When_PartialContentRangeUnexpected_Then_PartialAssetDiscarded() {
+        setupServiceProviderMockWithCacheDirAndRunTest(1024, 1024, () -> {
+            // setup
+            final File partialAsset = createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl), "asset");
+            createCacheFile("partialAssets/" + StringEncoder.sha2hash(assetUrl) + "_validator.txt", ETAG);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_PARTIAL);
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_CONTENT_RANGE)).thenReturn("bytes 0-8/9");
+
+            // test
+            campaignAssetDownloadScheduler.schedule(assetUrl, 0);
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify
+            verify(mockCacheService, never()).set(anyString(), anyString(), any(CacheEntry.class));
+            assertFalse(partialAsset.exists());
+        });
+    }
+}
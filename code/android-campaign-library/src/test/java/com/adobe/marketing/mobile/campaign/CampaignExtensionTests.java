@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -83,6 +84,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class CampaignExtensionTests {
@@ -156,6 +158,7 @@ public class CampaignExtensionTests {
         expectedViewedEventMessageData.put("a.message.viewed", "1");
         expectedViewedEventMessageData.put("a.message.id", "47973");
 
+        when(mockCampaignState.getSnapshot()).thenReturn(new CampaignState().getSnapshot());
         campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, mockCampaignState, mockCacheService, mockCampaignRulesDownloader);
     }
 
@@ -301,6 +304,7 @@ public class CampaignExtensionTests {
         campaignExtension.onRegistered();
         // verify
         verify(mockExtensionApi, times(6)).registerEventListener(anyString(), anyString(), any(ExtensionEventListener.class));
+        verify(mockCampaignRulesDownloader, timeout(1000).times(1)).loadCachedRules();
     }
 
     // =================================================================================================================
@@ -375,6 +379,110 @@ public class CampaignExtensionTests {
         });
     }
 
+    @Test
+    public void test_readyForEvent_when_sharedStatesAlreadyReady_then_sharedStatesNotLookedUpAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class))).thenReturn(getConfigurationEventData(new HashMap<>()));
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.identity"), any(Event.class), anyBoolean(), any(SharedStateResolution.class))).thenReturn(getIdentityEventData());
+            campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, new CampaignState(), mockCacheService, mockCampaignRulesDownloader);
+
+            Event testEvent = new Event.Builder("Test event", EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT)
+                    .setEventData(new HashMap<>())
+                    .build();
+
+            // test
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+
+            // verify
+            verify(mockExtensionApi, times(1)).getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class));
+            verify(mockExtensionApi, times(1)).getSharedState(eq("com.adobe.module.identity"), any(Event.class), anyBoolean(), any(SharedStateResolution.class));
+        });
+    }
+
+    @Test
+    public void test_readyForEvent_when_sharedStatesNotReady_then_sharedStatesLookedUpAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class)))
+                    .thenReturn(new SharedStateResult(SharedStateStatus.PENDING, new HashMap<>()))
+                    .thenReturn(getConfigurationEventData(new HashMap<>()));
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.identity"), any(Event.class), anyBoolean(), any(SharedStateResolution.class))).thenReturn(getIdentityEventData());
+            campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, new CampaignState(), mockCacheService, mockCampaignRulesDownloader);
+
+            Event testEvent = new Event.Builder("Test event", EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT)
+                    .setEventData(new HashMap<>())
+                    .build();
+
+            // test and verify
+            assertFalse(campaignExtension.readyForEvent(testEvent));
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+            verify(mockExtensionApi, times(2)).getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class));
+        });
+    }
+
+    @Test
+    public void test_readyForEvent_when_configurationSharedStateChangeEventReceived_then_sharedStatesLookedUpAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class)))
+                    .thenReturn(getConfigurationEventData(new HashMap<>()))
+                    .thenReturn(new SharedStateResult(SharedStateStatus.PENDING, new HashMap<>()));
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.identity"), any(Event.class), anyBoolean(), any(SharedStateResolution.class))).thenReturn(getIdentityEventData());
+            campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, new CampaignState(), mockCacheService, mockCampaignRulesDownloader);
+
+            Event testEvent = new Event.Builder("Test event", EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT)
+                    .setEventData(new HashMap<>())
+                    .build();
+            Event sharedStateEvent = new Event.Builder("Shared state change", EventType.HUB, EventSource.SHARED_STATE)
+                    .setEventData(new HashMap<String, Object>() {
+                        {
+                            put("stateowner", "com.adobe.module.configuration");
+                        }
+                    })
+                    .build();
+
+            // test
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+            assertFalse(campaignExtension.readyForEvent(sharedStateEvent));
+
+            // verify
+            verify(mockExtensionApi, times(2)).getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class));
+        });
+    }
+
+    @Test
+    public void test_readyForEvent_when_otherExtensionSharedStateChangeEventReceived_then_sharedStatesLookedUpAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class)))
+                    .thenReturn(getConfigurationEventData(new HashMap<>()))
+                    .thenReturn(new SharedStateResult(SharedStateStatus.PENDING, new HashMap<>()));
+            when(mockExtensionApi.getSharedState(eq("com.adobe.module.identity"), any(Event.class), anyBoolean(), any(SharedStateResolution.class))).thenReturn(getIdentityEventData());
+            campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, new CampaignState(), mockCacheService, mockCampaignRulesDownloader);
+
+            Event testEvent = new Event.Builder("Test event", EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT)
+                    .setEventData(new HashMap<>())
+                    .build();
+            Event sharedStateEvent = new Event.Builder("Shared state change", EventType.HUB, EventSource.SHARED_STATE)
+                    .setEventData(new HashMap<String, Object>() {
+                        {
+                            put("stateowner", "com.adobe.module.lifecycle");
+                        }
+                    })
+                    .build();
+
+            // test
+            assertTrue(campaignExtension.readyForEvent(testEvent));
+            assertFalse(campaignExtension.readyForEvent(sharedStateEvent));
+
+            // verify
+            verify(mockExtensionApi, times(2)).getSharedState(eq("com.adobe.module.configuration"), any(Event.class), anyBoolean(), any(SharedStateResolution.class));
+        });
+    }
+
     // =================================================================================================================
     // void handleWildcardEvents(Event event)
     // =================================================================================================================
@@ -738,7 +846,7 @@ public class CampaignExtensionTests {
         // verify
         String linkageFields = campaignExtension.getLinkageFields();
         assertEquals("", linkageFields);
-        verify(mockRulesEngine, times(1)).replaceRules(eq(null));
+        verify(mockCampaignRulesDownloader, times(1)).unregisterRules();
         verify(mockCacheService, times(1)).remove(eq(CampaignConstants.CACHE_BASE_DIR), eq(CampaignConstants.RULES_CACHE_FOLDER));
         verify(mockCampaignRulesDownloader, times(1)).loadRulesFromUrl(eq(expectedRulesDownloadUrl), eq(""));
     }
@@ -782,7 +890,7 @@ public class CampaignExtensionTests {
             // verify linkage fields reset
             String linkageFieldsString = campaignExtension.getLinkageFields();
             assertEquals("", linkageFieldsString);
-            verify(mockRulesEngine, times(1)).replaceRules(eq(null));
+            verify(mockCampaignRulesDownloader, times(1)).unregisterRules();
             verify(mockCacheService, times(2)).remove(eq(CampaignConstants.CACHE_BASE_DIR), eq(CampaignConstants.RULES_CACHE_FOLDER));
             verify(mockCampaignRulesDownloader, times(1)).loadRulesFromUrl(eq(expectedRulesDownloadUrl), eq(""));
         }
@@ -858,7 +966,7 @@ public class CampaignExtensionTests {
         verify(mockPersistentHitQueue, times(1)).handlePrivacyChange(eq(MobilePrivacyStatus.OPT_OUT));
         String linkageFields = campaignExtension.getLinkageFields();
         assertEquals("", linkageFields);
-        verify(mockRulesEngine, times(1)).replaceRules(eq(null));
+        verify(mockCampaignRulesDownloader, times(1)).unregisterRules();
         verify(mockCacheService, times(1)).remove(eq(CampaignConstants.CACHE_BASE_DIR), eq(CampaignConstants.RULES_CACHE_FOLDER));
         verify(mockNamedCollection, times(1)).removeAll();
     }
@@ -884,6 +992,29 @@ public class CampaignExtensionTests {
         verify(mockCampaignRulesDownloader, times(0)).loadRulesFromUrl(anyString(), anyString());
     }
 
+    @Test
+    public void test_processConfiguration_When_CampaignStateUnchanged_then_configurationResponseIgnored() {
+        // setup
+        CampaignState campaignState = new CampaignState();
+        campaignState.setState(getConfigurationEventData(new HashMap<>()), getIdentityEventData());
+        campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, campaignState, mockCacheService, mockCampaignRulesDownloader);
+
+        HashMap<String, Object> configData = new HashMap<>();
+        configData.put(CampaignConstants.EventDataKeys.Configuration.GLOBAL_CONFIG_PRIVACY, "optedin");
+
+        Event testEvent = new Event.Builder("Test event", EventType.CONFIGURATION, EventSource.RESPONSE_CONTENT)
+                .setEventData(configData)
+                .build();
+
+        // test
+        campaignExtension.processConfigurationResponse(testEvent);
+        campaignExtension.processConfigurationResponse(testEvent);
+
+        // verify
+        verify(mockPersistentHitQueue, times(1)).handlePrivacyChange(eq(MobilePrivacyStatus.OPT_IN));
+        verify(mockCampaignRulesDownloader, times(1)).loadRulesFromUrl(eq(expectedRulesDownloadUrl), eq(null));
+    }
+
     // =================================================================================================================
     // void processMessageInformation(Event event)
     // =================================================================================================================
@@ -1345,9 +1476,11 @@ public class CampaignExtensionTests {
 
         // setup for second part of test
         // add values to datastore to simulate a previous successful campaign registration request
+        // then recreate the extension as the datastore values are read once and cached in memory
         reset(mockPersistentHitQueue);
         fakeNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, System.currentTimeMillis());
         fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, "newExperienceCloudId");
+        campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, campaignState, mockCacheService, mockCampaignRulesDownloader);
 
         // test
         campaignExtension.processLifecycleUpdate(testEvent);
@@ -1488,6 +1621,73 @@ public class CampaignExtensionTests {
         verify(mockPersistentHitQueue, times(0)).queue(any(DataEntity.class));
     }
 
+    @Test
+    public void test_processLifecycleUpdate_when_registrationAlreadyQueued_then_shouldNotQueueDuplicateHit() {
+        // setup
+        // set registration delay to 0 days so a registration is due on every lifecycle start
+        FakeNamedCollection fakeNamedCollection = new FakeNamedCollection();
+        when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(fakeNamedCollection);
+        Map<String, Object> configData = new HashMap<>();
+        configData.put(CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_DELAY_KEY, 0);
+        CampaignState campaignState = new CampaignState();
+        campaignState.setState(getConfigurationEventData(configData), getIdentityEventData());
+        campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, campaignState, mockCacheService, mockCampaignRulesDownloader);
+
+        Event testEvent = new Event.Builder("Test event", EventType.LIFECYCLE,
+                EventSource.RESPONSE_CONTENT).setEventData(getLifecycleEventData()).build();
+        String url = String.format(CampaignConstants.CAMPAIGN_REGISTRATION_URL, campaignState.getCampaignServer(),
+                campaignState.getCampaignPkey(), campaignState.getExperienceCloudId());
+
+        // test
+        campaignExtension.processLifecycleUpdate(testEvent);
+        campaignExtension.processLifecycleUpdate(testEvent);
+        campaignExtension.processLifecycleUpdate(testEvent);
+
+        // verify single pending registration
+        verify(mockPersistentHitQueue, times(1)).queue(any(DataEntity.class));
+        assertEquals(url, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, null));
+
+        // simulate the pending registration being processed in a previous session
+        fakeNamedCollection.remove(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY);
+        campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, campaignState, mockCacheService, mockCampaignRulesDownloader);
+
+        // test
+        campaignExtension.processLifecycleUpdate(testEvent);
+
+        // verify
+        verify(mockPersistentHitQueue, times(2)).queue(any(DataEntity.class));
+    }
+
+    @Test
+    public void test_processLifecycleUpdate_when_pendingRegistrationExpired_then_shouldQueueHit() {
+        // setup
+        // set registration delay to 0 days so a registration is due on every lifecycle start
+        FakeNamedCollection fakeNamedCollection = new FakeNamedCollection();
+        when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(fakeNamedCollection);
+        Map<String, Object> configData = new HashMap<>();
+        configData.put(CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_DELAY_KEY, 0);
+        CampaignState campaignState = new CampaignState();
+        campaignState.setState(getConfigurationEventData(configData), getIdentityEventData());
+        campaignExtension = new CampaignExtension(mockExtensionApi, mockPersistentHitQueue, mockDataStoreService, mockRulesEngine, campaignState, mockCacheService, mockCampaignRulesDownloader);
+
+        Event testEvent = new Event.Builder("Test event", EventType.LIFECYCLE,
+                EventSource.RESPONSE_CONTENT).setEventData(getLifecycleEventData()).build();
+        String url = String.format(CampaignConstants.CAMPAIGN_REGISTRATION_URL, campaignState.getCampaignServer(),
+                campaignState.getCampaignPkey(), campaignState.getExperienceCloudId());
+        // simulate a registration queued in a previous session which was never processed
+        fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, campaignState.getExperienceCloudId());
+        fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, url);
+        fakeNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY,
+                testEvent.getTimestamp() - TimeUnit.HOURS.toMillis(CampaignConstants.PENDING_REGISTRATION_EXPIRY_HOURS));
+
+        // test
+        campaignExtension.processLifecycleUpdate(testEvent);
+
+        // verify
+        verify(mockPersistentHitQueue, times(1)).queue(any(DataEntity.class));
+        assertEquals(testEvent.getTimestamp(), fakeNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, 0));
+    }
+
     // =================================================================================================================
     // void dispatchMessageInteraction(Map<String, String> messageData)
     // =================================================================================================================
@@ -0,0 +1,135 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CampaignHitRetryPolicyTests {
+    private static final String hitId = "hitId";
+    private CampaignHitRetryPolicy campaignHitRetryPolicy;
+
+    @Before
+    public void setup() {
+        campaignHitRetryPolicy = new CampaignHitRetryPolicy(new Random(42));
+    }
+
+    @Test
+    public void testGetRetryInterval_When_NoFailedAttempts_Then_DefaultRetryInterval() {
+        // verify
+        assertEquals(CampaignConstants.CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS, campaignHitRetryPolicy.getRetryInterval(hitId));
+        assertEquals(CampaignConstants.CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS, campaignHitRetryPolicy.getRetryInterval(null));
+    }
+
+    @Test
+    public void testGetRetryInterval_When_FailedAttempts_Then_ExponentialBackoffWithJitterAndCap() {
+        for (int attempt = 1; attempt <= 12; attempt++) {
+            // test
+            campaignHitRetryPolicy.recordFailedAttempt(hitId, false, 0);
+            int retryInterval = campaignHitRetryPolicy.getRetryInterval(hitId);
+
+            // verify interval is within [backoff / 2, backoff]
+            long backoff = Math.min((long) CampaignConstants.CAMPAIGN_HIT_INITIAL_RETRY_INTERVAL_SECONDS << (attempt - 1),
+                    CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS);
+            assertTrue(retryInterval >= backoff - backoff / 2);
+            assertTrue(retryInterval <= backoff);
+        }
+    }
+
+    @Test
+    public void testGetRetryInterval_When_RetryAfterReceived_Then_RetryAfterHonored() {
+        // test
+        campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 120);
+
+        // verify
+        assertEquals(120, campaignHitRetryPolicy.getRetryInterval(hitId));
+    }
+
+    @Test
+    public void testGetRetryInterval_When_RetryAfterTooLarge_Then_RetryAfterCapped() {
+        // test
+        campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 86400);
+
+        // verify
+        assertEquals(CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_AFTER_SECONDS, campaignHitRetryPolicy.getRetryInterval(hitId));
+    }
+
+    @Test
+    public void testGetRetryInterval_When_HitCleared_Then_DefaultRetryInterval() {
+        // setup
+        campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 120);
+
+        // test
+        campaignHitRetryPolicy.clear(hitId);
+
+        // verify
+        assertEquals(CampaignConstants.CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS, campaignHitRetryPolicy.getRetryInterval(hitId));
+    }
+
+    @Test
+    public void testRecordFailedAttempt_When_MaxServerErrorsReached_Then_HitNotRetried() {
+        // test
+        for (int attempt = 1; attempt < CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS; attempt++) {
+            assertTrue(campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0));
+        }
+
+        // verify
+        assertFalse(campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0));
+    }
+
+    @Test
+    public void testRecordFailedAttempt_When_ManyConsecutiveConnectivityFailures_Then_HitStillRetried() {
+        // test
+        for (int attempt = 0; attempt < 45; attempt++) {
+            assertTrue(campaignHitRetryPolicy.recordFailedAttempt(hitId, false, 0));
+        }
+
+        // verify retries spaced out by the capped backoff
+        final int retryInterval = campaignHitRetryPolicy.getRetryInterval(hitId);
+        assertTrue(retryInterval >= CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS / 2);
+        assertTrue(retryInterval <= CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS);
+    }
+
+    @Test
+    public void testRecordFailedAttempt_When_ConnectivityFailuresBeforeServerErrors_Then_OnlyServerErrorsCounted() {
+        // setup
+        for (int attempt = 0; attempt < 45; attempt++) {
+            campaignHitRetryPolicy.recordFailedAttempt(hitId, false, 0);
+        }
+
+        // test
+        for (int attempt = 1; attempt < CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS; attempt++) {
+            assertTrue(campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0));
+        }
+
+        // verify
+        assertFalse(campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0));
+    }
+
+    @Test
+    public void testRecordFailedAttempt_When_MaxServerErrorsReached_Then_RetryStateCleared() {
+        // setup
+        for (int attempt = 0; attempt < CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS; attempt++) {
+            campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0);
+        }
+
+        // verify
+        assertEquals(CampaignConstants.CAMPAIGN_HIT_DEFAULT_RETRY_INTERVAL_SECONDS, campaignHitRetryPolicy.getRetryInterval(hitId));
+        assertTrue(campaignHitRetryPolicy.recordFailedAttempt(hitId, true, 0));
+    }
+}
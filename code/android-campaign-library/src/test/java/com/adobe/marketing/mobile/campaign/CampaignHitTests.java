@@ -13,7 +13,9 @@ package com.adobe.marketing.mobile.campaign;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import com.adobe.marketing.mobile.services.DataEntity;
 import com.adobe.marketing.mobile.services.HttpMethod;
 
 import org.junit.Test;
@@ -39,4 +41,68 @@ public class CampaignHitTests {
         assertEquals("{\"url\":\"url\",\"timeout\":5}", campaignHit.toString());
         assertEquals(HttpMethod.GET, campaignHit.getHttpCommand());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCreateCampaignHit_KeepAlive() {
+        // test
+        CampaignHit campaignHit = new CampaignHit("url", "payload", 5, true);
+        // verify
+        assertNotNull(campaignHit);
+        CampaignHit decodedCampaignHit = Utils.campaignHitFromDataEntity(new DataEntity(campaignHit.toString()));
+        assertEquals("url", decodedCampaignHit.url);
+        assertEquals("payload", decodedCampaignHit.payload);
+        assertEquals(5, decodedCampaignHit.timeout);
+        assertEquals(true, decodedCampaignHit.keepAlive);
+    }
+
+    @Test
+    public void testEncode_When_RegistrationHit_Then_DecodedHitMatches() {
+        // setup
+        CampaignHit campaignHit = new CampaignHit("https://campaign.com/rest/head/mobileAppV5/pkey/subscriptions/ecid", "{\"marketingCloudId\":\"ecid;1\"}", 5, true);
+
+        // test
+        String encodedHit = campaignHit.encode();
+        CampaignHit decodedCampaignHit = Utils.campaignHitFromDataEntity(new DataEntity(encodedHit));
+
+        // verify
+        assertEquals("c1;5;1;66;https://campaign.com/rest/head/mobileAppV5/pkey/subscriptions/ecid{\"marketingCloudId\":\"ecid;1\"}", encodedHit);
+        assertEquals(campaignHit.url, decodedCampaignHit.url);
+        assertEquals(campaignHit.payload, decodedCampaignHit.payload);
+        assertEquals(5, decodedCampaignHit.timeout);
+        assertEquals(true, decodedCampaignHit.keepAlive);
+        assertEquals(HttpMethod.POST, decodedCampaignHit.getHttpCommand());
+    }
+
+    @Test
+    public void testEncode_When_TrackingHit_Then_DecodedHitMatches() {
+        // setup
+        CampaignHit campaignHit = new CampaignHit("https://campaign.com/r/?id=h1,1,1&mcId=ecid", null, 10);
+
+        // test
+        CampaignHit decodedCampaignHit = Utils.campaignHitFromDataEntity(new DataEntity(campaignHit.encode()));
+
+        // verify
+        assertEquals(campaignHit.url, decodedCampaignHit.url);
+        assertEquals("", decodedCampaignHit.payload);
+        assertEquals(10, decodedCampaignHit.timeout);
+        assertEquals(false, decodedCampaignHit.keepAlive);
+        assertEquals(HttpMethod.GET, decodedCampaignHit.getHttpCommand());
+    }
+
+    @Test
+    public void testCampaignHitFromDataEntity_When_LegacyJsonHit_Then_HitDecoded() {
+        // test
+        CampaignHit decodedCampaignHit = Utils.campaignHitFromDataEntity(new DataEntity("{\"payload\":\"payload\",\"url\":\"url\",\"timeout\":5}"));
+
+        // verify
+        assertEquals("url", decodedCampaignHit.url);
+        assertEquals("payload", decodedCampaignHit.payload);
+        assertEquals(5, decodedCampaignHit.timeout);
+    }
+
+    @Test
+    public void testCampaignHitFromDataEntity_When_EncodedHitTruncated_Then_NullReturned() {
+        // verify
+        assertNull(Utils.campaignHitFromDataEntity(new DataEntity("c1;5;0;66;https://campaign.com")));
+    }
+}
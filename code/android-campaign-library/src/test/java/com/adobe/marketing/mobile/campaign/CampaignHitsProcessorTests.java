@@ -13,6 +13,9 @@ package com.adobe.marketing.mobile.campaign;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -40,10 +43,17 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class CampaignHitsProcessorTests {
-    private final CampaignHitProcessor campaignHitProcessor = new CampaignHitProcessor();
+    private final CampaignHitProcessor campaignHitProcessor = new CampaignHitProcessor(new CampaignNamedCollection());
 
     @Mock
     Networking mockNetworkService;
@@ -284,4 +294,349 @@ public class CampaignHitsProcessorTests {
             });
         });
     }
-}
\ No newline at end of file
+
+    // ====================================================================================================
+    // pooled connections
+    // ====================================================================================================
+    @Test
+    public void testProcessHit_When_TrackingHitsProcessed_Then_EachHitSentOnceWhenProcessedOverKeptAliveConnection() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<NetworkRequest> networkRequests = new ArrayList<>();
+            final List<NetworkCallback> networkCallbacks = new ArrayList<>();
+            final List<Boolean> results = new ArrayList<>();
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                networkRequests.add(invocation.getArgument(0));
+                networkCallbacks.add(invocation.getArgument(1));
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            final Date timestamp = new Date();
+            DataEntity firstHit = new DataEntity("1", timestamp, new CampaignHit("https://campaign.com/r/?id=h1,1,1", "", 5).toString());
+            DataEntity secondHit = new DataEntity("2", timestamp, new CampaignHit("https://campaign.com/r/?id=h1,1,2", "", 5).toString());
+
+            // test
+            campaignHitProcessor.processHit(firstHit, results::add);
+
+            // verify only the processed hit sent, and not completed until its response is received
+            assertEquals(1, networkRequests.size());
+            assertEquals("https://campaign.com/r/?id=h1,1,1", networkRequests.get(0).getUrl());
+            assertTrue(results.isEmpty());
+            networkCallbacks.get(0).call(mockHttpConnection);
+            assertEquals(Arrays.asList(true), results);
+
+            // test
+            campaignHitProcessor.processHit(secondHit, results::add);
+            networkCallbacks.get(1).call(mockHttpConnection);
+
+            // verify each hit sent once in the order processed, leaving the connection to the platform's connection pool
+            assertEquals(2, networkRequests.size());
+            assertEquals("https://campaign.com/r/?id=h1,1,2", networkRequests.get(1).getUrl());
+            assertEquals(Arrays.asList(true, true), results);
+            for (final NetworkRequest networkRequest : networkRequests) {
+                assertEquals("keep-alive", networkRequest.getHeaders().get(CampaignConstants.HTTP_HEADER_KEY_CONNECTION));
+            }
+            verify(mockHttpConnection, times(2)).close();
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_RegistrationHitProcessed_Then_ConnectionClosed() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<NetworkRequest> networkRequests = new ArrayList<>();
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                networkRequests.add(invocation.getArgument(0));
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            DataEntity registrationHit = new DataEntity(new CampaignHit("https://campaign.com/rest/head/mobileAppV5/pkey/subscriptions/ecid", "payload", 5).toString());
+
+            // test
+            campaignHitProcessor.processHit(registrationHit, processingComplete -> assertEquals(true, processingComplete));
+
+            // verify
+            assertEquals(1, networkRequests.size());
+            assertEquals("close", networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_KEY_CONNECTION));
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_KeepAliveEnabled_Then_ConnectionKeptAlive() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<NetworkRequest> networkRequests = new ArrayList<>();
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                networkRequests.add(invocation.getArgument(0));
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5, true);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> assertEquals(true, processingComplete));
+            // verify
+            assertEquals(1, networkRequests.size());
+            assertEquals("keep-alive", networkRequests.get(0).getHeaders().get(CampaignConstants.HTTP_HEADER_KEY_CONNECTION));
+        });
+    }
+
+    // ====================================================================================================
+    // asynchronous hit processing
+    // ====================================================================================================
+    @Test
+    public void testProcessHit_When_NetworkResponsePending_Then_ProcessHitReturnsWithoutCompleting() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<NetworkCallback> networkCallbacks = new ArrayList<>();
+            final AtomicReference<Boolean> result = new AtomicReference<>();
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                networkCallbacks.add(invocation.getArgument(1));
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, result::set);
+
+            // verify hit completed from the network callback
+            assertNull(result.get());
+            networkCallbacks.get(0).call(mockHttpConnection);
+            assertEquals(true, result.get());
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_NetworkResponseReceivedAfterHitTimeout_Then_HitProcessed() {
+        // setup
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Boolean> result = new AtomicReference<>();
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(1500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    callback.call(mockHttpConnection);
+                }).start();
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 1);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> {
+                result.set(processingComplete);
+                latch.countDown();
+            });
+
+            // verify
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                fail(e.getMessage());
+            }
+            assertEquals(true, result.get());
+        });
+    }
+
+    // ====================================================================================================
+    // retry policy
+    // ====================================================================================================
+    @Test
+    public void testProcessHit_When_RetryAfterReceived_Then_RetryIntervalHonorsRetryAfter() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_UNAVAILABLE);
+            when(mockHttpConnection.getResponsePropertyValue(CampaignConstants.HTTP_HEADER_RETRY_AFTER)).thenReturn("120");
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> assertEquals(false, processingComplete));
+
+            // verify
+            assertEquals(120, campaignHitProcessor.retryInterval(dataEntity));
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_ServerKeepsAskingForRetry_Then_HitDiscardedAfterMaxAttempts() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<Boolean> results = new ArrayList<>();
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_GATEWAY_TIMEOUT);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            for (int attempt = 0; attempt < CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS; attempt++) {
+                campaignHitProcessor.processHit(dataEntity, results::add);
+            }
+
+            // verify hit retried, then discarded
+            assertEquals(CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS, results.size());
+            for (int attempt = 0; attempt < CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS - 1; attempt++) {
+                assertEquals(false, results.get(attempt));
+            }
+            assertEquals(true, results.get(CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_ATTEMPTS - 1));
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_ConnectionKeepsFailing_Then_HitStillRetried() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<Boolean> results = new ArrayList<>();
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(null);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            for (int attempt = 0; attempt < 45; attempt++) {
+                campaignHitProcessor.processHit(dataEntity, results::add);
+            }
+
+            // verify hit never discarded, retries spaced out by the capped backoff
+            assertEquals(45, results.size());
+            for (final Boolean result : results) {
+                assertEquals(false, result);
+            }
+            assertTrue(campaignHitProcessor.retryInterval(dataEntity) <= CampaignConstants.CAMPAIGN_HIT_MAX_RETRY_INTERVAL_SECONDS);
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_NetworkServiceKeepsBeingUnavailable_Then_HitStillRetried() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final List<Boolean> results = new ArrayList<>();
+            when(mockServiceProvider.getNetworkService()).thenReturn(null);
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.toString());
+
+            // test
+            for (int attempt = 0; attempt < 45; attempt++) {
+                campaignHitProcessor.processHit(dataEntity, results::add);
+            }
+
+            // verify hit never discarded
+            assertEquals(45, results.size());
+            for (final Boolean result : results) {
+                assertEquals(false, result);
+            }
+        });
+    }
+
+    // ====================================================================================================
+    // pending registration
+    // ====================================================================================================
+    @Test
+    public void testProcessHit_When_RegistrationHitProcessed_Then_PendingRegistrationCleared() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            FakeNamedCollection fakeNamedCollection = new FakeNamedCollection();
+            when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(fakeNamedCollection);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.encode());
+            fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, campaignHit.url);
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> assertEquals(true, processingComplete));
+
+            // verify
+            assertNull(fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, null));
+            assertEquals(0, fakeNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, 0));
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_RegistrationHitDiscarded_Then_PendingRegistrationCleared() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            FakeNamedCollection fakeNamedCollection = new FakeNamedCollection();
+            when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(fakeNamedCollection);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.encode());
+            fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, campaignHit.url);
+            fakeNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, System.currentTimeMillis());
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> assertEquals(true, processingComplete));
+
+            // verify
+            assertNull(fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, null));
+            assertEquals(0, fakeNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_TIMESTAMP_KEY, 0));
+        });
+    }
+
+    @Test
+    public void testProcessHit_When_RegistrationHitRetried_Then_PendingRegistrationKept() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            FakeNamedCollection fakeNamedCollection = new FakeNamedCollection();
+            when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(fakeNamedCollection);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(null);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            CampaignHit campaignHit = new CampaignHit("https://campaignrequest.com", "payload", 5);
+            DataEntity dataEntity = new DataEntity(campaignHit.encode());
+            fakeNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, campaignHit.url);
+
+            // test
+            campaignHitProcessor.processHit(dataEntity, processingComplete -> assertEquals(false, processingComplete));
+
+            // verify
+            assertEquals(campaignHit.url, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_PENDING_REGISTRATION_KEY, null));
+        });
+    }
+}
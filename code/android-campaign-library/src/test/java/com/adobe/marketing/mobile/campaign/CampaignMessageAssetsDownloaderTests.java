@@ -11,10 +11,14 @@
 
 package com.adobe.marketing.mobile.campaign;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -27,8 +31,11 @@ import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -47,6 +54,7 @@ import com.adobe.marketing.mobile.services.caching.CacheEntry;
 import com.adobe.marketing.mobile.services.caching.CacheResult;
 import com.adobe.marketing.mobile.services.caching.CacheService;
 import com.adobe.marketing.mobile.services.ui.UIService;
+import com.adobe.marketing.mobile.util.StreamUtils;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class CampaignMessageAssetsDownloaderTests {
@@ -54,8 +62,8 @@ public class CampaignMessageAssetsDownloaderTests {
     private CampaignMessageAssetsDownloader campaignMessageAssetsDownloader;
     private ArrayList<String> assets;
     private String fakeMessageId;
-    private String expectedCacheLocation;
     private String messageCacheDirString;
+    private String assetCacheString;
     private File cacheDir;
     private HashMap<String, String> metadataMap;
     private static final String messageId = "07a1c997-2450-46f0-a454-537906404124";
@@ -88,8 +96,8 @@ public class CampaignMessageAssetsDownloaderTests {
         assets = new ArrayList<>();
         assets.add(assetUrl);
         fakeMessageId = "d38a46f6-4f43-435a-a862-4038c27b90a1";
-        expectedCacheLocation = "cache/aepsdkcache/campaign/messages/" + fakeMessageId;
         messageCacheDirString = "campaign/messages/" + fakeMessageId;
+        assetCacheString = "campaign/assets";
     }
 
     @After
@@ -132,7 +140,9 @@ public class CampaignMessageAssetsDownloaderTests {
             when(mockServiceProvider.getNetworkService()).thenReturn(mockNetworkService);
             when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
             // create CampaignMessageAssetsDownloader instance
-            campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assets, fakeMessageId);
+            final CampaignAssetCache assetCache = new CampaignAssetCache(mockCacheService);
+            campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assets, fakeMessageId, assetCache,
+                    new CampaignAssetDownloadScheduler(assetCache), 0);
             testRunnable.run();
         }
     }
@@ -144,7 +154,7 @@ public class CampaignMessageAssetsDownloaderTests {
     public void testDownloadAssetCollection_when_assetNotInCache_then_assetIsCached() {
         // setup
         setupServiceProviderMockAndRunTest(() -> {
-
+            when(mockCacheService.get(anyString(), anyString())).thenReturn(null);
             when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
             when(mockHttpConnection.getInputStream()).thenReturn(new ByteArrayInputStream("assetData".getBytes(StandardCharsets.UTF_8)));
             doAnswer((Answer<Void>) invocation -> {
@@ -154,16 +164,13 @@ public class CampaignMessageAssetsDownloaderTests {
             }).when(mockNetworkService)
                     .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
 
-            try (MockedStatic<Utils> campaignUtilsMockedStatic = Mockito.mockStatic(Utils.class)) {
-                // test
-                campaignMessageAssetsDownloader.downloadAssetCollection();
-                // verify
-                campaignUtilsMockedStatic.verify(() -> Utils.clearCachedAssetsNotInList(any(), any()));
-                verify(mockCacheService, times(1)).get(eq(expectedCacheLocation), eq(assetUrl));
-                verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
-                // verify asset cached
-                verify(mockCacheService, times(1)).set(eq(messageCacheDirString), eq(assetUrl), any(CacheEntry.class));
-            }
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+            // verify asset cache read to build the request, then to resolve the cached asset path
+            verify(mockCacheService, times(2)).get(eq(assetCacheString), eq(assetUrl));
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            // verify asset cached
+            verify(mockCacheService, times(1)).set(eq(assetCacheString), eq(assetUrl), any(CacheEntry.class));
         });
     }
 
@@ -181,33 +188,44 @@ public class CampaignMessageAssetsDownloaderTests {
             }).when(mockNetworkService)
                     .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
 
-            try (MockedStatic<Utils> campaignUtilsMockedStatic = Mockito.mockStatic(Utils.class)) {
-                // test
-                campaignMessageAssetsDownloader.downloadAssetCollection();
-                // verify
-                campaignUtilsMockedStatic.verify(() -> Utils.clearCachedAssetsNotInList(any(), any()));
-                verify(mockCacheService, times(1)).get(eq(expectedCacheLocation), eq(assetUrl));
-                verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
-                // verify asset not cached
-                verify(mockCacheService, times(0)).set(eq(messageCacheDirString), eq(assetUrl), any(CacheEntry.class));
-            }
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+            // verify
+            verify(mockCacheService, times(1)).get(eq(assetCacheString), eq(assetUrl));
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            // verify asset not cached
+            verify(mockCacheService, times(0)).set(eq(assetCacheString), eq(assetUrl), any(CacheEntry.class));
         });
     }
 
     @Test
-    public void testDownloadAssetCollection_when_assetInCacheIsNotForActiveMessage_then_cachedAssetIsDeleted() throws
-            Exception {
+    public void testDownloadAssetCollection_when_assetsDownloadable_then_manifestIsCachedForMessage() {
         // setup
-        final File existingCacheDir = new File("cache/aepsdkcache/campaign/messages/d38a46f6-4f43-435a-a862-4038c27b90a1");
-        existingCacheDir.mkdirs();
-        final File existingCachedFile = new
-                File("cache/aepsdkcache/campaign/messages/d38a46f6-4f43-435a-a862-4038c27b90a1/028dbbd3617ccfb5e302f4aa2df2eb312d1571ee40b3f4aa448658c9082b0411");
-        existingCachedFile.createNewFile();
+        assets.add("adobe.png");
+        setupServiceProviderMockAndRunTest(() -> {
+            ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
 
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+            // verify manifest only contains the downloadable asset
+            verify(mockCacheService, times(1)).set(eq(messageCacheDirString), eq(CampaignConstants.MESSAGE_MANIFEST_KEY), cacheEntryArgumentCaptor.capture());
+            try {
+                JSONArray manifest = new JSONArray(StreamUtils.readAsString(cacheEntryArgumentCaptor.getValue().getData()));
+                assertEquals(1, manifest.length());
+                assertEquals(assetUrl, manifest.getString(0));
+            } catch (JSONException e) {
+                fail(e.getMessage());
+            }
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+        });
+    }
+
+    @Test
+    public void testDownloadAssetCollection_when_assetIsNotDownloadable_then_assetIsNotCached() {
+        // setup
         setupServiceProviderMockAndRunTest(() -> {
 
-            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
-            when(mockHttpConnection.getInputStream()).thenReturn(new ByteArrayInputStream("assetData".getBytes(StandardCharsets.UTF_8)));
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
             doAnswer((Answer<Void>) invocation -> {
                 NetworkCallback callback = invocation.getArgument(1);
                 callback.call(mockHttpConnection);
@@ -218,21 +236,72 @@ public class CampaignMessageAssetsDownloaderTests {
             // test
             campaignMessageAssetsDownloader.downloadAssetCollection();
             // verify
-            verify(mockCacheService, times(1)).get(eq(expectedCacheLocation), eq(assetUrl));
+            verify(mockCacheService, times(1)).get(eq(assetCacheString), eq(assetUrl));
             verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
-            // verify new asset cached
-            verify(mockCacheService, times(1)).set(eq(messageCacheDirString), eq(assetUrl), any(CacheEntry.class));
-            // verify non matching cached asset deleted
-            assertEquals(false, existingCachedFile.exists());
+            // verify asset not cached
+            verify(mockCacheService, times(0)).set(eq(assetCacheString), eq(assetUrl), any(CacheEntry.class));
         });
     }
 
     @Test
-    public void testDownloadAssetCollection_when_assetIsNotDownloadable_then_assetIsNotCached() {
+    public void testDownloadAssetCollection_when_allAssetsDownloaded_then_listenerNotifiedOnce() {
         // setup
+        assets.add("https://www.adobe.com/banner.png");
         setupServiceProviderMockAndRunTest(() -> {
-
+            final List<NetworkCallback> networkCallbacks = new ArrayList<>();
+            final AtomicInteger listenerCalls = new AtomicInteger();
             when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+            doAnswer((Answer<Void>) invocation -> {
+                networkCallbacks.add(invocation.getArgument(1));
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            final CampaignAssetCache assetCache = new CampaignAssetCache(mockCacheService);
+            campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assets, fakeMessageId, assetCache,
+                    new CampaignAssetDownloadScheduler(assetCache), 0, listenerCalls::incrementAndGet);
+
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify listener not notified until the last download completes
+            assertEquals(0, listenerCalls.get());
+
+            networkCallbacks.get(1).call(mockHttpConnection);
+
+            // verify
+            assertEquals(2, networkCallbacks.size());
+            assertEquals(1, listenerCalls.get());
+        });
+    }
+
+    @Test
+    public void testDownloadAssetCollection_when_noDownloadableAssets_then_listenerNotified() {
+        // setup
+        assets.clear();
+        assets.add("adobe.png");
+        setupServiceProviderMockAndRunTest(() -> {
+            final AtomicInteger listenerCalls = new AtomicInteger();
+            final CampaignAssetCache assetCache = new CampaignAssetCache(mockCacheService);
+            campaignMessageAssetsDownloader = new CampaignMessageAssetsDownloader(assets, fakeMessageId, assetCache,
+                    new CampaignAssetDownloadScheduler(assetCache), 0, listenerCalls::incrementAndGet);
+
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+
+            // verify
+            verify(mockNetworkService, times(0)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            assertEquals(1, listenerCalls.get());
+        });
+    }
+
+    @Test
+    public void testDownloadAssetCollection_when_assetsDownloaded_then_resolvedManifestIsCachedForMessage() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            ArgumentCaptor<CacheEntry> cacheEntryArgumentCaptor = ArgumentCaptor.forClass(CacheEntry.class);
+            when(mockCacheResult.getMetadata()).thenReturn(metadataMap);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
             doAnswer((Answer<Void>) invocation -> {
                 NetworkCallback callback = invocation.getArgument(1);
                 callback.call(mockHttpConnection);
@@ -240,15 +309,18 @@ public class CampaignMessageAssetsDownloaderTests {
             }).when(mockNetworkService)
                     .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
 
-            try (MockedStatic<Utils> campaignUtilsMockedStatic = Mockito.mockStatic(Utils.class)) {
-                // test
-                campaignMessageAssetsDownloader.downloadAssetCollection();
-                // verify
-                campaignUtilsMockedStatic.verify(() -> Utils.clearCachedAssetsNotInList(any(), any()));
-                verify(mockCacheService, times(1)).get(eq(expectedCacheLocation), eq(assetUrl));
-                verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
-                // verify asset not cached
-                verify(mockCacheService, times(0)).set(eq(messageCacheDirString), eq(assetUrl), any(CacheEntry.class));
+            // test
+            campaignMessageAssetsDownloader.downloadAssetCollection();
+
+            // verify the manifest is cached, then replaced by the resolved manifest
+            verify(mockCacheService, times(2)).set(eq(messageCacheDirString), eq(CampaignConstants.MESSAGE_MANIFEST_KEY), cacheEntryArgumentCaptor.capture());
+            try {
+                JSONObject manifest = new JSONObject(StreamUtils.readAsString(cacheEntryArgumentCaptor.getAllValues().get(1).getData()));
+                assertEquals(assetUrl, manifest.getJSONArray(CampaignConstants.MESSAGE_MANIFEST_ASSETS_KEY).getString(0));
+                assertEquals(metadataMap.get(CampaignConstants.METADATA_PATH),
+                        manifest.getJSONObject(CampaignConstants.MESSAGE_MANIFEST_RESOLVED_ASSETS_KEY).getString(assetUrl));
+            } catch (JSONException e) {
+                fail(e.getMessage());
             }
         });
     }
@@ -0,0 +1,117 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CampaignMessageContentCacheTests {
+    private static final String HTML_CONTENT = "<html>content</html>";
+    private CampaignMessageContentCache messageContentCache;
+    private Map<String, String> localAssets;
+
+    @Before
+    public void setup() {
+        messageContentCache = new CampaignMessageContentCache(2);
+        messageContentCache.setRulesVersion("etag|lastModified");
+        localAssets = new HashMap<>();
+        localAssets.put("http://asset1.jpeg", "/cache/asset1.jpeg");
+    }
+
+    @Test
+    public void test_get_When_ContentCached_Then_ReturnsContent() {
+        // test
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, Arrays.asList("http://asset1.jpeg", "asset1.jpeg"), localAssets);
+        final CampaignMessageContentCache.Content content = messageContentCache.get("id1", "id1.html");
+
+        // verify
+        assertNotNull(content);
+        assertEquals(HTML_CONTENT, content.getHtml());
+        assertEquals(localAssets, content.getLocalAssets());
+        assertNull(messageContentCache.get("id1", "other.html"));
+    }
+
+    @Test
+    public void test_put_When_MaxEntriesExceeded_Then_LeastRecentlyUsedContentRemoved() {
+        // setup
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, null, null);
+        messageContentCache.put("id2", "id2.html", HTML_CONTENT, null, null);
+        messageContentCache.get("id1", "id1.html");
+
+        // test
+        messageContentCache.put("id3", "id3.html", HTML_CONTENT, null, null);
+
+        // verify
+        assertNotNull(messageContentCache.get("id1", "id1.html"));
+        assertNull(messageContentCache.get("id2", "id2.html"));
+        assertNotNull(messageContentCache.get("id3", "id3.html"));
+    }
+
+    @Test
+    public void test_setRulesVersion_When_SameVersion_Then_ContentRetained() {
+        // setup
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, null, null);
+
+        // test
+        messageContentCache.setRulesVersion("etag|lastModified");
+
+        // verify
+        assertNotNull(messageContentCache.get("id1", "id1.html"));
+    }
+
+    @Test
+    public void test_setRulesVersion_When_DifferentVersion_Then_ContentRemoved() {
+        // setup
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, null, null);
+
+        // test
+        messageContentCache.setRulesVersion("newEtag|lastModified");
+
+        // verify
+        assertNull(messageContentCache.get("id1", "id1.html"));
+    }
+
+    @Test
+    public void test_setRulesVersion_When_RulesUnregistered_Then_ContentRemoved() {
+        // setup
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, null, null);
+
+        // test
+        messageContentCache.setRulesVersion(null);
+
+        // verify
+        assertNull(messageContentCache.get("id1", "id1.html"));
+    }
+
+    @Test
+    public void test_invalidateAsset_When_AssetUsed_Then_OnlyContentUsingAssetRemoved() {
+        // setup
+        messageContentCache.put("id1", "id1.html", HTML_CONTENT, Collections.singletonList("http://asset1.jpeg"), localAssets);
+        messageContentCache.put("id2", "id2.html", HTML_CONTENT, Collections.singletonList("http://asset2.jpeg"), null);
+
+        // test
+        messageContentCache.invalidateAsset("http://asset1.jpeg");
+
+        // verify
+        assertNull(messageContentCache.get("id1", "id1.html"));
+        assertNotNull(messageContentCache.get("id2", "id2.html"));
+    }
+}
@@ -14,6 +14,8 @@ package com.adobe.marketing.mobile.campaign;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -97,4 +99,32 @@ public class CampaignMessageTests {
         assertEquals("Y", alertMessage.confirmButtonText);
         assertEquals("N", alertMessage.cancelButtonText);
     }
+
+    @Test
+    public void nullReturned_When_RequiredMessageFieldMissing() throws Exception {
+        // setup
+        happyDetailMap.remove("content");
+        happyMessageMap.put("detail", happyDetailMap);
+
+        // test
+        CampaignMessage message = CampaignMessage.createMessageObject(mockCampaignExtension, TestUtils.createRuleConsequence(happyMessageMap));
+
+        // verify
+        assertNull(message);
+    }
+
+    @Test
+    public void registeredFactoryUsed_When_MessageTemplateRegistered() throws Exception {
+        // setup
+        final CampaignMessage customMessage = mock(CampaignMessage.class);
+        CampaignMessage.registerMessageFactory("custom", (extension, consequence) -> customMessage);
+        happyDetailMap.put("template", "custom");
+        happyMessageMap.put("detail", happyDetailMap);
+
+        // test
+        CampaignMessage message = CampaignMessage.createMessageObject(mockCampaignExtension, TestUtils.createRuleConsequence(happyMessageMap));
+
+        // verify
+        assertSame(customMessage, message);
+    }
 }
@@ -0,0 +1,126 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.DataStoring;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CampaignNamedCollectionTests {
+    private CampaignNamedCollection campaignNamedCollection;
+    private FakeNamedCollection persistentCollection;
+
+    @Mock
+    DataStoring mockDataStoreService;
+
+    @Before
+    public void setup() {
+        persistentCollection = spy(new FakeNamedCollection());
+        persistentCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, "testEcid");
+        persistentCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, 1000L);
+        when(mockDataStoreService.getNamedCollection(eq(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_NAME))).thenReturn(persistentCollection);
+        campaignNamedCollection = new CampaignNamedCollection(mockDataStoreService);
+    }
+
+    @Test
+    public void testGet_When_ReadRepeatedly_Then_PersistentStoreReadOnce() {
+        // test
+        for (int i = 0; i < 5; i++) {
+            assertEquals("testEcid", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, ""));
+            assertEquals(1000L, campaignNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, -1L));
+        }
+
+        // verify
+        verify(persistentCollection, times(1)).getString(eq(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY), eq(null));
+        verify(persistentCollection, times(1)).getLong(eq(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY), anyLong());
+    }
+
+    @Test
+    public void testGet_When_KeyNotStored_Then_DefaultValueReturned() {
+        // verify
+        assertEquals("default", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, "default"));
+        assertFalse(campaignNamedCollection.contains(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY));
+    }
+
+    @Test
+    public void testSet_When_CachedKey_Then_WrittenThroughToPersistentStore() {
+        // test
+        campaignNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, "https://remote.url");
+        campaignNamedCollection.setLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, 2000L);
+
+        // verify
+        assertEquals("https://remote.url", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
+        assertEquals(2000L, campaignNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, -1L));
+        assertTrue(campaignNamedCollection.contains(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY));
+        assertEquals("https://remote.url", persistentCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
+        assertEquals(2000L, persistentCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, -1L));
+    }
+
+    @Test
+    public void testRemove_When_CachedKey_Then_RemovedFromMemoryAndPersistentStore() {
+        // test
+        campaignNamedCollection.remove(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY);
+
+        // verify
+        assertEquals("", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, ""));
+        assertNull(persistentCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, null));
+    }
+
+    @Test
+    public void testRemoveAll_Then_MemoryAndPersistentStoreCleared() {
+        // test
+        campaignNamedCollection.removeAll();
+
+        // verify
+        assertEquals(-1L, campaignNamedCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, -1L));
+        assertEquals(-1L, persistentCollection.getLong(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REGISTRATION_TIMESTAMP_KEY, -1L));
+    }
+
+    @Test
+    public void testGet_When_UncachedKey_Then_ReadFromPersistentStore() {
+        // setup
+        persistentCollection.setString("otherKey", "otherValue");
+
+        // verify
+        assertEquals("otherValue", campaignNamedCollection.getString("otherKey", ""));
+    }
+
+    @Test
+    public void testIsAvailable_When_NamedCollectionUnavailable_Then_DefaultValuesReturned() {
+        // setup
+        when(mockDataStoreService.getNamedCollection(anyString())).thenReturn(null);
+        campaignNamedCollection = new CampaignNamedCollection(mockDataStoreService);
+
+        // verify
+        assertFalse(campaignNamedCollection.isAvailable());
+        assertEquals("default", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, "default"));
+        campaignNamedCollection.setString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, "newEcid");
+        assertEquals("default", campaignNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_EXPERIENCE_CLOUD_ID_KEY, "default"));
+    }
+}
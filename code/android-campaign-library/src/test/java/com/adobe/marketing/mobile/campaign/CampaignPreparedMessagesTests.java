@@ -0,0 +1,133 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CampaignPreparedMessagesTests {
+    private HashMap<String, Object> alertMessageMap;
+    private HashMap<String, Object> alertDetailMap;
+    private CampaignPreparedMessages campaignPreparedMessages;
+
+    @Mock
+    CampaignExtension mockCampaignExtension;
+    @Mock
+    LaunchRule mockLaunchRule;
+
+    @Before
+    public void setup() {
+        alertDetailMap = new HashMap<>();
+        alertDetailMap.put("template", "alert");
+        alertDetailMap.put("title", "Title");
+        alertDetailMap.put("content", "content");
+        alertDetailMap.put("confirm", "Y");
+        alertDetailMap.put("cancel", "N");
+
+        alertMessageMap = new HashMap<>();
+        alertMessageMap.put("id", "123");
+        alertMessageMap.put("type", "iam");
+        alertMessageMap.put("detail", alertDetailMap);
+
+        campaignPreparedMessages = new CampaignPreparedMessages(mockCampaignExtension);
+    }
+
+    @Test
+    public void test_update_When_ValidMessageConsequence_Then_MessagePrepared() {
+        // setup
+        final RuleConsequence consequence = TestUtils.createRuleConsequence(alertMessageMap);
+        when(mockLaunchRule.getConsequenceList()).thenReturn(Collections.singletonList(consequence));
+
+        // test
+        campaignPreparedMessages.update(Collections.singletonList(mockLaunchRule));
+
+        // verify
+        final CampaignMessage message = campaignPreparedMessages.get(TestUtils.createRuleConsequence(alertMessageMap));
+        assertNotNull(message);
+        assertEquals(AlertMessage.class, message.getClass());
+        assertEquals("Title", ((AlertMessage) message).title);
+    }
+
+    @Test
+    public void test_update_When_InvalidMessageConsequence_Then_MessageNotPrepared() {
+        // setup
+        alertDetailMap.remove("content");
+        final RuleConsequence consequence = TestUtils.createRuleConsequence(alertMessageMap);
+        when(mockLaunchRule.getConsequenceList()).thenReturn(Collections.singletonList(consequence));
+
+        // test
+        campaignPreparedMessages.update(Collections.singletonList(mockLaunchRule));
+
+        // verify
+        assertNull(campaignPreparedMessages.get(consequence));
+    }
+
+    @Test
+    public void test_update_When_MessageConsequenceContainsTokens_Then_MessagePreparedWithConsequenceContent() {
+        // setup
+        alertDetailMap.put("content", "Hello {%~state.com.adobe.module.identity/mid%}");
+        final RuleConsequence consequence = TestUtils.createRuleConsequence(alertMessageMap);
+        when(mockLaunchRule.getConsequenceList()).thenReturn(Collections.singletonList(consequence));
+
+        // test
+        campaignPreparedMessages.update(Collections.singletonList(mockLaunchRule));
+
+        // verify
+        final CampaignMessage message = campaignPreparedMessages.get(consequence);
+        assertNotNull(message);
+        assertEquals("Hello {%~state.com.adobe.module.identity/mid%}", ((AlertMessage) message).content);
+    }
+
+    @Test
+    public void test_update_When_NonMessageConsequence_Then_MessageNotPrepared() {
+        // setup
+        alertMessageMap.put("type", "add");
+        final RuleConsequence consequence = TestUtils.createRuleConsequence(alertMessageMap);
+        when(mockLaunchRule.getConsequenceList()).thenReturn(Collections.singletonList(consequence));
+
+        // test
+        campaignPreparedMessages.update(Arrays.asList(mockLaunchRule));
+
+        // verify
+        assertNull(campaignPreparedMessages.get(consequence));
+    }
+
+    @Test
+    public void test_clear_When_MessagesPrepared_Then_MessagesRemoved() {
+        // setup
+        final RuleConsequence consequence = TestUtils.createRuleConsequence(alertMessageMap);
+        when(mockLaunchRule.getConsequenceList()).thenReturn(Collections.singletonList(consequence));
+        campaignPreparedMessages.update(Collections.singletonList(mockLaunchRule));
+
+        // test
+        campaignPreparedMessages.clear();
+
+        // verify
+        assertNull(campaignPreparedMessages.get(consequence));
+    }
+}
@@ -26,14 +26,21 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,6 +53,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine;
 import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
@@ -87,6 +95,8 @@ public class CampaignRulesDownloaderTests {
     @Mock
     ExtensionApi mockExtensionApi;
     @Mock
+    CampaignExtension mockCampaignExtension;
+    @Mock
     ServiceProvider mockServiceProvider;
     @Mock
     LaunchRulesEngine mockRulesEngine;
@@ -189,7 +199,7 @@ public class CampaignRulesDownloaderTests {
             }
             when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
             // create CampaignRulesDownloader instance
-            campaignRulesDownloader = new CampaignRulesDownloader(mockExtensionApi, mockRulesEngine, fakeNamedCollection, mockCacheService);
+            campaignRulesDownloader = new CampaignRulesDownloader(mockExtensionApi, mockRulesEngine, new CampaignRulesEventIndex(), new CampaignPreparedMessages(mockCampaignExtension), new CampaignMessageContentCache(), fakeNamedCollection, mockCacheService);
             testRunnable.run();
         } catch (FileNotFoundException e) {
             fail(e.getMessage());
@@ -257,8 +267,10 @@ public class CampaignRulesDownloaderTests {
             assertEquals(TIME_SINCE_EPOCH_RFC2882, headers.get(CampaignConstants.HTTP_HEADER_IF_MODIFIED_SINCE));
             // verify extracted rules json is cached
             verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq("rules.json"), any(CacheEntry.class));
-            // verify rules json is retrieved to be loaded into the rules engine
-            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules json is loaded into the rules engine without being read back from the cache
+            verify(mockCacheService, times(0)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules response metadata is cached for conditional requests
+            verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE), any(CacheEntry.class));
             // verify rules remote url added to named collection
             assertEquals(rulesUrl, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
             // verify rules loaded into the rules engine
@@ -266,6 +278,104 @@ public class CampaignRulesDownloaderTests {
         });
     }
 
+    @Test
+    public void test_loadRulesFromUrl_When_NewRulesDownloaded_Then_PreviouslyCachedRulesFilesRemoved() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup
+            final File rulesCacheDir = new File(cacheDir, CampaignConstants.AEPSDK_CACHE_BASE_DIR + File.separator
+                    + CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER);
+            rulesCacheDir.mkdirs();
+            final File staleFile = new File(rulesCacheDir, StringEncoder.sha2hash("removed_from_bundle.html"));
+            final File zipHandleFile = new File(rulesCacheDir, StringEncoder.sha2hash(CampaignConstants.ZIP_HANDLE));
+            try {
+                assertTrue(staleFile.createNewFile());
+                assertTrue(zipHandleFile.createNewFile());
+                when(mockHttpConnection.getInputStream()).thenReturn(new FileInputStream(zipFile));
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl("https://www.adobe.com/rules.zip", null);
+
+            // verify files of the previous rules zip removed, except the zip handle
+            assertFalse(staleFile.exists());
+            assertTrue(zipHandleFile.exists());
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_RulesZipStreamFailsPartway_Then_PreviouslyCachedRulesFilesKept() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup
+            final File rulesCacheDir = new File(cacheDir, CampaignConstants.AEPSDK_CACHE_BASE_DIR + File.separator
+                    + CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER);
+            rulesCacheDir.mkdirs();
+            final File cachedRulesJsonFile = new File(rulesCacheDir, StringEncoder.sha2hash(CampaignConstants.RULES_JSON_FILE_NAME));
+            final File cachedMessageFile = new File(rulesCacheDir, StringEncoder.sha2hash("message.html"));
+            final File zipHandleFile = new File(rulesCacheDir, StringEncoder.sha2hash(CampaignConstants.ZIP_HANDLE));
+            try {
+                assertTrue(cachedRulesJsonFile.createNewFile());
+                assertTrue(cachedMessageFile.createNewFile());
+                assertTrue(zipHandleFile.createNewFile());
+
+                // zip stream failing while the rules json entry is read
+                final byte[] entryContent = new byte[4096];
+                new Random(0).nextBytes(entryContent);
+                final ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+                try (final ZipOutputStream zipOutputStream = new ZipOutputStream(zipBytes)) {
+                    zipOutputStream.putNextEntry(new ZipEntry("message.html"));
+                    zipOutputStream.write(entryContent, 0, 1024);
+                    zipOutputStream.closeEntry();
+                    zipOutputStream.putNextEntry(new ZipEntry(CampaignConstants.RULES_JSON_FILE_NAME));
+                    zipOutputStream.write(entryContent);
+                    zipOutputStream.closeEntry();
+                }
+                final byte[] zipContent = zipBytes.toByteArray();
+                when(mockHttpConnection.getInputStream()).thenReturn(new FilterInputStream(new ByteArrayInputStream(zipContent)) {
+                    private int bytesRead;
+
+                    @Override
+                    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                        if (bytesRead > zipContent.length / 2) {
+                            throw new IOException("connection reset");
+                        }
+                        final int read = super.read(buffer, offset, Math.min(length, 64));
+                        bytesRead += Math.max(read, 0);
+                        return read;
+                    }
+                });
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl("https://www.adobe.com/rules.zip", null);
+
+            // verify files of the previous rules zip kept and no new rules registered
+            assertTrue(cachedRulesJsonFile.exists());
+            assertTrue(cachedMessageFile.exists());
+            assertTrue(zipHandleFile.exists());
+            verify(mockCacheService, times(0)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), anyString(), any(CacheEntry.class));
+            verify(mockRulesEngine, times(0)).replaceRules(any());
+        });
+    }
+
     @Test
     public void test_loadRulesFromUrl_When_WeakEtagPresentInCachedFileMetadata_Then_RuleDownloadRequestContainsWeakEtagInHeaders() {
         // setup
@@ -302,8 +412,10 @@ public class CampaignRulesDownloaderTests {
             assertEquals(TIME_SINCE_EPOCH_RFC2882, headers.get(CampaignConstants.HTTP_HEADER_IF_MODIFIED_SINCE));
             // verify extracted rules json is cached
             verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq("rules.json"), any(CacheEntry.class));
-            // verify rules json is retrieved to be loaded into the rules engine
-            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules json is loaded into the rules engine without being read back from the cache
+            verify(mockCacheService, times(0)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules response metadata is cached for conditional requests
+            verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE), any(CacheEntry.class));
             // verify rules remote url added to named collection
             assertEquals(rulesUrl, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
             // verify rules loaded into the rules engine
@@ -346,8 +458,10 @@ public class CampaignRulesDownloaderTests {
             assertEquals(0, headers.size());
             // verify extracted rules json is cached
             verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq("rules.json"), any(CacheEntry.class));
-            // verify rules json is retrieved to be loaded into the rules engine
-            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules json is loaded into the rules engine without being read back from the cache
+            verify(mockCacheService, times(0)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules response metadata is cached for conditional requests
+            verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE), any(CacheEntry.class));
             // verify rules remote url added to named collection
             assertEquals(rulesUrl, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
             // verify rules loaded into the rules engine
@@ -392,8 +506,10 @@ public class CampaignRulesDownloaderTests {
             assertEquals(linkageFields, headers.get(CampaignConstants.LINKAGE_FIELD_NETWORK_HEADER));
             // verify extracted rules json is cached
             verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq("rules.json"), any(CacheEntry.class));
-            // verify rules json is retrieved to be loaded into the rules engine
-            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules json is loaded into the rules engine without being read back from the cache
+            verify(mockCacheService, times(0)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules response metadata is cached for conditional requests
+            verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE), any(CacheEntry.class));
             // verify rules remote url added to named collection
             assertEquals(rulesUrl, fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
             // verify rules loaded into the rules engine
@@ -434,8 +550,242 @@ public class CampaignRulesDownloaderTests {
             verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
             // verify rules remote url not added to named collection
             assertEquals("", fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
-            // verify rules not loaded as they are unmodified
+            // verify cached rules loaded as no rules are registered
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_RuleDownloadRequestResponseContainsNotModifiedAndCachedRulesRegistered_Then_RulesNotReloaded() {
+        // setup
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+            // register cached rules
+            campaignRulesDownloader.loadCachedRules();
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+
+            // verify cached rules json only retrieved when registering cached rules
+            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules only loaded once
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_RuleDownloadRequestResponseContainsNotModifiedAndCachedRulesRegistered_Then_AssetsRefreshed() {
+        // setup
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            // cached files of a message which is not part of the cached rules
+            final File unloadedMessageDir = new File(cacheDir, CampaignConstants.AEPSDK_CACHE_BASE_DIR + File.separator + MESSAGES_CACHE + messageId);
+            unloadedMessageDir.mkdirs();
+            // register cached rules
+            campaignRulesDownloader.loadCachedRules();
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl("https://www.adobe.com/rules.zip", null);
+
+            // verify rules only loaded once
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+            // verify remote assets of the registered rules refreshed, removing the files of unloaded messages
+            assertFalse(unloadedMessageDir.exists());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_RuleDownloadRequestResponseContainsNotModifiedAfterRulesUnregistered_Then_RulesLoadedFromCache() {
+        // setup
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+            try {
+                when(mockCacheResult.getData()).thenReturn(new FileInputStream(ruleJsonFile), new FileInputStream(ruleJsonFile));
+            } catch (FileNotFoundException e) {
+                fail(e.getMessage());
+            }
+            // register then unregister cached rules
+            campaignRulesDownloader.loadCachedRules();
+            campaignRulesDownloader.unregisterRules();
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+
+            // verify cached rules json retrieved again
+            verify(mockCacheService, times(2)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            // verify rules loaded, unloaded then loaded again
+            verify(mockRulesEngine, times(3)).replaceRules(any());
+            verify(mockRulesEngine, times(1)).replaceRules(eq(null));
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_IdenticalRequestInFlight_Then_RulesNotDownloadedAgain() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup, the network callback is never invoked so the first request stays in flight
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, "linkageFields");
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, "linkageFields");
+
+            // verify
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_RequestWithDifferentLinkageFieldsInFlight_Then_RulesDownloaded() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup, the network callback is never invoked so the first request stays in flight
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, "linkageFields");
+
+            // verify
+            verify(mockNetworkService, times(2)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_IdenticalRequestCompletedWithinMinRefreshInterval_Then_RulesNotDownloadedAgain() {
+        // setup
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+
+            // verify
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_IdenticalRequestFailed_Then_RulesDownloadedAgain() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+
+            // verify
+            verify(mockNetworkService, times(2)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_ResponseReceivedForSupersededRequest_Then_ResponseIgnored() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup
+            ArgumentCaptor<NetworkCallback> networkCallbackArgumentCaptor = ArgumentCaptor.forClass(NetworkCallback.class);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            try {
+                when(mockHttpConnection.getInputStream()).thenReturn(new FileInputStream(zipFile));
+            } catch (FileNotFoundException e) {
+                fail(e.getMessage());
+            }
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, "linkageFields");
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, "otherLinkageFields");
+            verify(mockNetworkService, times(2)).connectAsync(any(NetworkRequest.class), networkCallbackArgumentCaptor.capture());
+            List<NetworkCallback> networkCallbacks = networkCallbackArgumentCaptor.getAllValues();
+
+            // test
+            networkCallbacks.get(0).call(mockHttpConnection);
+
+            // verify superseded response not cached or registered
+            verify(mockHttpConnection, times(1)).close();
+            verify(mockCacheService, times(0)).set(anyString(), anyString(), any(CacheEntry.class));
             verify(mockRulesEngine, times(0)).replaceRules(any());
+
+            // test
+            networkCallbacks.get(1).call(mockHttpConnection);
+
+            // verify latest response cached and registered
+            verify(mockCacheService, times(1)).set(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq("rules.json"), any(CacheEntry.class));
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadRulesFromUrl_When_ResponseReceivedAfterRulesUnregistered_Then_ResponseIgnored() {
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // setup
+            ArgumentCaptor<NetworkCallback> networkCallbackArgumentCaptor = ArgumentCaptor.forClass(NetworkCallback.class);
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            try {
+                when(mockHttpConnection.getInputStream()).thenReturn(new FileInputStream(zipFile));
+            } catch (FileNotFoundException e) {
+                fail(e.getMessage());
+            }
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+            verify(mockNetworkService, times(1)).connectAsync(any(NetworkRequest.class), networkCallbackArgumentCaptor.capture());
+
+            // test
+            campaignRulesDownloader.unregisterRules();
+            networkCallbackArgumentCaptor.getValue().call(mockHttpConnection);
+
+            // verify response not cached and rules only unregistered
+            verify(mockCacheService, times(0)).set(anyString(), anyString(), any(CacheEntry.class));
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+            verify(mockRulesEngine, times(1)).replaceRules(eq(null));
         });
     }
 
@@ -508,6 +858,126 @@ public class CampaignRulesDownloaderTests {
         });
     }
 
+    @Test
+    public void test_loadRulesFromUrl_When_NonZipContentDownloaded_Then_NoRulesLoadedOrCached() {
+        // setup
+        setupServiceProviderMockAndRunTest(false, () -> {
+            when(mockHttpConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            try {
+                when(mockHttpConnection.getInputStream()).thenReturn(new FileInputStream(ruleJsonFile));
+            } catch (FileNotFoundException e) {
+                fail(e.getMessage());
+            }
+            doAnswer((Answer<Void>) invocation -> {
+                NetworkCallback callback = invocation.getArgument(1);
+                callback.call(mockHttpConnection);
+                return null;
+            }).when(mockNetworkService)
+                    .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            String rulesUrl =
+                    "https://mcias-va7.cloud.adobe.io/mcias/mcias.campaign-demo.adobe.com/PR146b40abd1be4a0ab224c16cbdc04bff/37922783516695133647566171476397216484/rules.zip";
+
+            // test
+            campaignRulesDownloader.loadRulesFromUrl(rulesUrl, null);
+
+            // verify nothing is cached
+            verify(mockCacheService, times(0)).set(anyString(), anyString(), any(CacheEntry.class));
+            // verify no rules remote url added to named collection
+            assertEquals("", fakeNamedCollection.getString(CampaignConstants.CAMPAIGN_NAMED_COLLECTION_REMOTES_URL_KEY, ""));
+            // verify no rules loaded into the rules engine
+            verify(mockRulesEngine, times(0)).replaceRules(any());
+        });
+    }
+
+    // =================================================================================================================
+    // void loadCachedRules()
+    // =================================================================================================================
+    @Test
+    public void test_loadCachedRules_When_CachedRulesMatchCachedValidators_Then_RulesLoaded() {
+        // setup
+        CacheResult mockValidatorsCacheResult = Mockito.mock(CacheResult.class);
+        when(mockValidatorsCacheResult.getMetadata()).thenReturn(new HashMap<>(metadataMap));
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockValidatorsCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // test
+            campaignRulesDownloader.loadCachedRules();
+
+            // verify no network request
+            verify(mockNetworkService, times(0)).connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+            // verify cached rules loaded into the rules engine
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadCachedRules_When_CachedRulesDoNotMatchCachedValidators_Then_RulesNotLoaded() {
+        // setup
+        CacheResult mockValidatorsCacheResult = Mockito.mock(CacheResult.class);
+        HashMap<String, String> validatorsMetadata = new HashMap<>(metadataMap);
+        validatorsMetadata.put(CampaignConstants.HTTP_HEADER_ETAG, WEAK_ETAG);
+        when(mockValidatorsCacheResult.getMetadata()).thenReturn(validatorsMetadata);
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockValidatorsCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // test
+            campaignRulesDownloader.loadCachedRules();
+
+            // verify rules not loaded into the rules engine
+            verify(mockRulesEngine, times(0)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadCachedRules_When_RulesUnregisteredBefore_Then_RulesNotLoaded() {
+        // setup
+        CacheResult mockValidatorsCacheResult = Mockito.mock(CacheResult.class);
+        when(mockValidatorsCacheResult.getMetadata()).thenReturn(new HashMap<>(metadataMap));
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockValidatorsCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            campaignRulesDownloader.unregisterRules();
+
+            // test
+            campaignRulesDownloader.loadCachedRules();
+
+            // verify cached rules not loaded into the rules engine
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+            verify(mockRulesEngine, times(1)).replaceRules(eq(null));
+        });
+    }
+
+    @Test
+    public void test_loadCachedRules_When_RulesAlreadyRegistered_Then_CachedRulesNotLoadedAgain() {
+        // setup
+        CacheResult mockValidatorsCacheResult = Mockito.mock(CacheResult.class);
+        when(mockValidatorsCacheResult.getMetadata()).thenReturn(new HashMap<>(metadataMap));
+        when(mockCacheService.get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.ZIP_HANDLE))).thenReturn(mockValidatorsCacheResult);
+
+        setupServiceProviderMockAndRunTest(false, () -> {
+            campaignRulesDownloader.loadCachedRules();
+
+            // test
+            campaignRulesDownloader.loadCachedRules();
+
+            // verify cached rules loaded into the rules engine once
+            verify(mockCacheService, times(1)).get(eq(CampaignConstants.CACHE_BASE_DIR + File.separator + CampaignConstants.RULES_CACHE_FOLDER), eq(CampaignConstants.RULES_JSON_FILE_NAME));
+            verify(mockRulesEngine, times(1)).replaceRules(any());
+        });
+    }
+
+    @Test
+    public void test_loadCachedRules_When_NoCachedRules_Then_RulesNotLoaded() {
+        // setup
+        setupServiceProviderMockAndRunTest(false, () -> {
+            // test
+            campaignRulesDownloader.loadCachedRules();
+
+            // verify rules not loaded into the rules engine
+            verify(mockRulesEngine, times(0)).replaceRules(any());
+        });
+    }
+
     // =================================================================================================================
     //  void cacheRemoteAssets(final List<LaunchRule> campaignRules)
     // =================================================================================================================
@@ -0,0 +1,129 @@
+/*
+  Copyright 2022 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.campaign;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import com.adobe.marketing.mobile.util.StreamUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CampaignRulesEventIndexTests {
+    private static final String TYPE_SOURCE_RULES = "{\"version\":1,\"rules\":[{\"condition\":{\"type\":\"group\",\"definition\":{\"logic\":\"and\",\"conditions\":["
+            + "{\"type\":\"matcher\",\"definition\":{\"key\":\"~type\",\"matcher\":\"eq\",\"values\":[\"com.adobe.eventType.lifecycle\"]}},"
+            + "{\"type\":\"matcher\",\"definition\":{\"key\":\"~source\",\"matcher\":\"eq\",\"values\":[\"com.adobe.eventSource.responseContent\"]}}]}},"
+            + "\"consequences\":[]}]}";
+    private static final String OR_RULES = "{\"version\":1,\"rules\":[{\"condition\":{\"type\":\"group\",\"definition\":{\"logic\":\"or\",\"conditions\":["
+            + "{\"type\":\"matcher\",\"definition\":{\"key\":\"action\",\"matcher\":\"eq\",\"values\":[\"login\"]}}]}},"
+            + "\"consequences\":[]}]}";
+    private static final String NESTED_KEY_RULES = "{\"version\":1,\"rules\":[{\"condition\":{\"type\":\"matcher\","
+            + "\"definition\":{\"key\":\"contextdata.product\",\"matcher\":\"eq\",\"values\":[\"shoes\"]}},"
+            + "\"consequences\":[]}]}";
+
+    private CampaignRulesEventIndex campaignRulesEventIndex;
+
+    @Before
+    public void setup() {
+        campaignRulesEventIndex = new CampaignRulesEventIndex();
+    }
+
+    private Event createEvent(final String type, final String source, final Map<String, Object> eventData) {
+        return new Event.Builder("Test event", type, source)
+                .setEventData(eventData)
+                .build();
+    }
+
+    private Map<String, Object> createEventData(final String key, final Object value) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(key, value);
+        return eventData;
+    }
+
+    @Test
+    public void test_canMatch_When_IndexNotBuilt_Then_AllEventsMatch() {
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.ANALYTICS, EventSource.REQUEST_CONTENT, null)));
+    }
+
+    @Test
+    public void test_canMatch_When_IndexCleared_Then_NoEventsMatch() {
+        // test
+        campaignRulesEventIndex.clear();
+
+        // verify
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("action", "localImpression"))));
+    }
+
+    @Test
+    public void test_canMatch_When_RulesRequireEventDataKey_Then_OnlyEventsContainingKeyMatch() throws IOException {
+        // setup
+        final String rulesJson = StreamUtils.readAsString(new FileInputStream(TestUtils.getResource("rules.json")));
+
+        // test
+        campaignRulesEventIndex.update(rulesJson);
+
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("action", "localImpression"))));
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("state", "home"))));
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.LIFECYCLE, EventSource.RESPONSE_CONTENT, null)));
+    }
+
+    @Test
+    public void test_canMatch_When_RulesRequireTypeAndSource_Then_OnlyMatchingPairsMatch() {
+        // test
+        campaignRulesEventIndex.update(TYPE_SOURCE_RULES);
+
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.LIFECYCLE, EventSource.RESPONSE_CONTENT, null)));
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.LIFECYCLE, EventSource.REQUEST_CONTENT, null)));
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.ANALYTICS, EventSource.RESPONSE_CONTENT, null)));
+    }
+
+    @Test
+    public void test_canMatch_When_RuleRequiresNestedEventDataKey_Then_EventsContainingTopLevelKeyMatch() {
+        // test
+        campaignRulesEventIndex.update(NESTED_KEY_RULES);
+
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("contextdata", new HashMap<String, Object>()))));
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("contextdata.product", "shoes"))));
+        assertFalse(campaignRulesEventIndex.canMatch(createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, createEventData("action", "login"))));
+    }
+
+    @Test
+    public void test_canMatch_When_RuleConditionCannotBeIndexed_Then_AllEventsMatch() {
+        // test
+        campaignRulesEventIndex.update(OR_RULES);
+
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.ANALYTICS, EventSource.REQUEST_CONTENT, null)));
+    }
+
+    @Test
+    public void test_canMatch_When_InvalidRulesJson_Then_AllEventsMatch() {
+        // test
+        campaignRulesEventIndex.update("{invalid");
+
+        // verify
+        assertTrue(campaignRulesEventIndex.canMatch(createEvent(EventType.ANALYTICS, EventSource.REQUEST_CONTENT, null)));
+    }
+}
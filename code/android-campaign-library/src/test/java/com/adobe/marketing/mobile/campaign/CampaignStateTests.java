@@ -42,6 +42,7 @@ public class CampaignStateTests {
         configData.put(CampaignConstants.EventDataKeys.Configuration.GLOBAL_CONFIG_PRIVACY, "optedin");
         configData.put(CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_DELAY_KEY, 30);
         configData.put(CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_REGISTRATION_PAUSED_KEY, true);
+        configData.put(CampaignConstants.EventDataKeys.Configuration.CAMPAIGN_KEEP_ALIVE_KEY, true);
         final SharedStateResult sharedStateResult = new SharedStateResult(SharedStateStatus.SET, configData);
 
         return sharedStateResult;
@@ -69,6 +70,7 @@ public class CampaignStateTests {
         assertEquals(MobilePrivacyStatus.OPT_IN, campaignState.getMobilePrivacyStatus());
         assertEquals(30, campaignState.getCampaignRegistrationDelay());
         assertEquals(true, campaignState.getCampaignRegistrationPaused());
+        assertEquals(true, campaignState.getCampaignKeepAlive());
     }
 
     @Test
@@ -91,6 +93,7 @@ public class CampaignStateTests {
         assertEquals(MobilePrivacyStatus.UNKNOWN, campaignState.getMobilePrivacyStatus());
         assertEquals(CampaignConstants.DEFAULT_REGISTRATION_DELAY_DAYS, campaignState.getCampaignRegistrationDelay());
         assertEquals(false, campaignState.getCampaignRegistrationPaused());
+        assertEquals(false, campaignState.getCampaignKeepAlive());
     }
 
     @Test
@@ -512,4 +515,53 @@ public class CampaignStateTests {
         // verify
         assertFalse(canSendTrackInfo);
     }
+
+    @Test
+    public void testSetState_when_propertiesChange_then_newSnapshotWithIncrementedVersion() {
+        // setup
+        final CampaignState.Snapshot initialSnapshot = campaignState.getSnapshot();
+
+        // test
+        campaignState.setState(getConfigurationEventData(), getIdentityEventData());
+
+        // verify
+        final CampaignState.Snapshot snapshot = campaignState.getSnapshot();
+        assertNotSame(initialSnapshot, snapshot);
+        assertEquals(0, initialSnapshot.getVersion());
+        assertEquals(1, snapshot.getVersion());
+        assertEquals("testServer", snapshot.getCampaignServer());
+        assertEquals("testExperienceCloudId", snapshot.getExperienceCloudId());
+        assertNull(initialSnapshot.getCampaignServer());
+    }
+
+    @Test
+    public void testSetState_when_propertiesUnchanged_then_snapshotNotReplaced() {
+        // setup
+        campaignState.setState(getConfigurationEventData(), getIdentityEventData());
+        final CampaignState.Snapshot snapshot = campaignState.getSnapshot();
+
+        // test
+        campaignState.setState(getConfigurationEventData(), getIdentityEventData());
+
+        // verify
+        assertSame(snapshot, campaignState.getSnapshot());
+        assertEquals(1, campaignState.getVersion());
+    }
+
+    @Test
+    public void testSetState_when_onlyIdentityProvided_then_configurationPropertiesRetained() {
+        // setup
+        campaignState.setState(getConfigurationEventData(), getIdentityEventData());
+        final Map<String, Object> identityData = new HashMap<>();
+        identityData.put(CampaignConstants.EventDataKeys.Identity.VISITOR_ID_MID, "newExperienceCloudId");
+
+        // test
+        campaignState.setState(null, new SharedStateResult(SharedStateStatus.SET, identityData));
+
+        // verify
+        assertEquals(2, campaignState.getVersion());
+        assertEquals("newExperienceCloudId", campaignState.getExperienceCloudId());
+        assertEquals("testServer", campaignState.getCampaignServer());
+        assertEquals(10, campaignState.getCampaignTimeout());
+    }
 }
@@ -43,9 +43,11 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -338,6 +340,29 @@ public class FullScreenMessageTests {
         });
     }
 
+    @Test
+    public void showMessage_ShouldCallUIServiceWithSameHTML_When_MessageShownAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
+            happyDetailMap.remove("remoteAssets");
+            happyMessageMap.put("detail", happyDetailMap);
+            try {
+                FullScreenMessage fullScreenMessage = new FullScreenMessage(mockCampaignExtension,
+                        TestUtils.createRuleConsequence(happyMessageMap));
+                // test
+                fullScreenMessage.showMessage();
+                fullScreenMessage.showMessage();
+            } catch (CampaignMessageRequiredFieldMissingException exception) {
+                fail(exception.getMessage());
+            }
+
+            // verify
+            verify(mockUIService, times(2)).createFullscreenMessage(stringArgumentCaptor.capture(), any(FullscreenMessageDelegate.class), anyBoolean(), any(MessageSettings.class));
+            assertEquals(stringArgumentCaptor.getAllValues().get(0), stringArgumentCaptor.getAllValues().get(1));
+        });
+    }
+
     @Test
     public void showMessage_Should_Call_setLocalAssetsMap_With_EmptyMap_WhenNoAssets() {
         // setup
@@ -379,6 +404,57 @@ public class FullScreenMessageTests {
         });
     }
 
+    @Test
+    public void showMessage_ShouldUseInMemoryContent_When_MessageShownAgain() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            when(mockCampaignExtension.getMessageContentCache()).thenReturn(new CampaignMessageContentCache());
+            Map<String, String> expectedMap = new HashMap<>();
+            expectedMap.put("http://asset1-url00.jpeg", "campaign/messages/07a1c997-2450-46f0-a454-537906404124/fb0d3704b73d5fa012a521ea31013a61020e79610a3c27e8dd1007f3ec278195.12345");
+            try {
+                FullScreenMessage fullScreenMessage = new FullScreenMessage(mockCampaignExtension,
+                        TestUtils.createRuleConsequence(happyMessageMap));
+                // test
+                fullScreenMessage.showMessage();
+                fullScreenMessage.showMessage();
+            } catch (CampaignMessageRequiredFieldMissingException exception) {
+                fail(exception.getMessage());
+            }
+
+            // verify html and assets are only read from the cache service once
+            verify(mockCacheService, times(1)).get(anyString(), eq("happy_test.html"));
+            verify(mockCacheService, times(1)).get(anyString(), eq("http://asset1-url00.jpeg"));
+            verify(mockUIService, times(2)).createFullscreenMessage(anyString(), any(FullscreenMessageDelegate.class), eq(true), any(MessageSettings.class));
+            verify(mockFullscreenMessage, times(2)).setLocalAssetsMap(expectedMap);
+        });
+    }
+
+    @Test
+    public void showMessage_ShouldUseResolvedManifest_When_MessageAssetsResolved() {
+        // setup
+        setupServiceProviderMockAndRunTest(() -> {
+            final CacheResult mockManifestCacheResult = Mockito.mock(CacheResult.class);
+            final String manifest = "{\"assets\":[\"http://asset1-url01.jpeg\",\"http://asset2-url10.jpeg\"],"
+                    + "\"resolvedAssets\":{\"http://asset1-url01.jpeg\":\"campaign/assets/asset1\"}}";
+            when(mockManifestCacheResult.getData()).thenReturn(new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8)));
+            when(mockCacheService.get(eq(CampaignAssetCache.MESSAGES_CACHE_NAME + File.separator + messageId), eq(CampaignConstants.MESSAGE_MANIFEST_KEY))).thenReturn(mockManifestCacheResult);
+            Map<String, String> expectedMap = new HashMap<>();
+            expectedMap.put("http://asset1-url00.jpeg", "campaign/assets/asset1");
+            try {
+                FullScreenMessage fullScreenMessage = new FullScreenMessage(mockCampaignExtension,
+                        TestUtils.createRuleConsequence(happyMessageMap));
+                // test
+                fullScreenMessage.showMessage();
+            } catch (CampaignMessageRequiredFieldMissingException exception) {
+                fail(exception.getMessage());
+            }
+
+            // verify assets resolved from the manifest without probing the asset cache
+            verify(mockCacheService, times(0)).get(eq(CampaignAssetCache.ASSET_CACHE_NAME), anyString());
+            verify(mockFullscreenMessage, times(1)).setLocalAssetsMap(expectedMap);
+        });
+    }
+
     @Test
     public void fullscreenListenerOverrideUrlLoad_ShouldNotCallRemoveViewedClickedWithData_When_URLInvalid() {
         // setup